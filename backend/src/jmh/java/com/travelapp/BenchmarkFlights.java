@@ -0,0 +1,50 @@
+package com.travelapp;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic flight data shared by the benchmarks.
+ */
+public final class BenchmarkFlights {
+
+    private static final String[] AIRLINES = {"United Airlines", "Delta Air Lines", "American Airlines", "Southwest Airlines"};
+    private static final String[] PREFIXES = {"UA", "DL", "AA", "WN"};
+
+    private BenchmarkFlights() {
+    }
+
+    /**
+     * SFO to JFK flights on {@code date}, in random order with fixed seed.
+     */
+    public static List<Flight> sfoToJfk(int count, LocalDate date) {
+        Random random = new Random(42);
+        List<Flight> flights = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int airline = random.nextInt(AIRLINES.length);
+            int duration = 300 + random.nextInt(240);
+            Flight flight = new Flight();
+            flight.setId((long) i + 1);
+            flight.setFlightNumber(PREFIXES[airline] + (1000 + i % 9000));
+            flight.setAirline(AIRLINES[airline]);
+            flight.setOrigin("SFO");
+            flight.setDestination("JFK");
+            flight.setDepartureTime(date.atStartOfDay().plusMinutes(random.nextInt(24 * 60)));
+            flight.setArrivalTime(flight.getDepartureTime().plusMinutes(duration));
+            flight.setDurationMinutes(duration);
+            flight.setPrice(Money.ofMinor(15_000 + random.nextInt(50_000), Flight.CURRENCY));
+            flight.setStops(random.nextInt(3));
+            flight.setAircraftType("Boeing 737");
+            flight.setAvailableSeats(1 + random.nextInt(200));
+            flight.setUpdatedAt(Instant.EPOCH);
+            flights.add(flight);
+        }
+        return flights;
+    }
+}
@@ -0,0 +1,119 @@
+package com.travelapp;
+
+import com.travelapp.model.Flight;
+import com.travelapp.repository.FlightRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphQL requests executed in-process against the full application on an embedded H2
+ * database: schema, controllers, services, transactions and JPA, without HTTP.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    private static final int FLIGHTS = 200;
+
+    private static final String SEARCH_FLIGHTS = """
+        query($date: String!) {
+          searchFlights(origin: "SFO", destination: "JFK", departureDate: $date) {
+            id flightNumber airline departureTime price availableSeats
+          }
+        }
+        """;
+    private static final String CREATE_BOOKING = """
+        mutation($input: BookingInput!) {
+          createBooking(input: $input) { success message booking { bookingReference flight { flightNumber } } }
+        }
+        """;
+
+    /** Off: every read falls back to the search cache and the database, as when the snapshot is stale. */
+    @Param({"true", "false"})
+    private boolean flightSnapshot;
+
+    private ConfigurableApplicationContext context;
+    private ExecutionGraphQlService graphQlService;
+    private String departureDate;
+    private Long flightId;
+
+    @Setup
+    public void setUp() {
+        // Passed as arguments so they take precedence over application.properties
+        context = new SpringApplicationBuilder(TravelAppApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:mem:benchmark",
+                 "--spring.datasource.driver-class-name=org.h2.Driver",
+                 "--spring.liquibase.enabled=false",
+                 "--spring.jpa.hibernate.ddl-auto=create-drop",
+                 "--travelapp.flight-snapshot.max-staleness=" + (flightSnapshot ? "PT30S" : "PT0S"),
+                 "--travelapp.booking.reference-key=7243029185364871",
+                 "--logging.level.root=WARN");
+        context.getBean(JdbcTemplate.class).execute("CREATE SEQUENCE IF NOT EXISTS booking_reference_seq");
+        graphQlService = context.getBean(ExecutionGraphQlService.class);
+
+        LocalDate date = LocalDate.now().plusDays(30);
+        departureDate = date.toString();
+        List<Flight> flights = BenchmarkFlights.sfoToJfk(FLIGHTS, date);
+        flights.forEach(flight -> {
+            flight.setId(null);
+            flight.setAvailableSeats(Integer.MAX_VALUE);
+        });
+        flightId = context.getBean(FlightRepository.class).saveAll(flights).get(0).getId();
+
+        requireNoErrors(searchFlights());
+        ExecutionGraphQlResponse booking = createBooking();
+        requireNoErrors(booking);
+        if (!Boolean.TRUE.equals(booking.field("createBooking.success").getValue())) {
+            throw new IllegalStateException("Benchmark booking failed: " + booking.getData());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse searchFlights() {
+        return execute(SEARCH_FLIGHTS, Map.of("date", departureDate));
+    }
+
+    @Benchmark
+    public ExecutionGraphQlResponse createBooking() {
+        return execute(CREATE_BOOKING, Map.of("input", Map.of(
+            "flightId", flightId,
+            "passengerName", "John Doe",
+            "passengerEmail", "john@example.com",
+            "passengerPhone", "4155550123")));
+    }
+
+    private ExecutionGraphQlResponse execute(String document, Map<String, Object> variables) {
+        return graphQlService
+            .execute(new DefaultExecutionGraphQlRequest(document, null, variables, null,
+                                                        UUID.randomUUID().toString(), null))
+            .block();
+    }
+
+    private static void requireNoErrors(ExecutionGraphQlResponse response) {
+        if (!response.isValid() || !response.getErrors().isEmpty()) {
+            throw new IllegalStateException("Benchmark request failed: " + response.getErrors());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.travelapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reference generation with an in-memory sequence, so the cost of the permutation, encoding
+ * and block hand-out is measured without the {@code nextval} round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingReferenceGeneratorBenchmark {
+
+    private BookingReferenceGenerator generator;
+
+    @Setup
+    public void setUp() {
+        AtomicLong sequence = new AtomicLong();
+        generator = new BookingReferenceGenerator(sequence::incrementAndGet, 7243029185364871L,
+                                                  new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public String next() {
+        return generator.next();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextContended() {
+        return generator.next();
+    }
+}
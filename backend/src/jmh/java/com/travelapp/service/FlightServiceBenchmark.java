@@ -0,0 +1,108 @@
+package com.travelapp.service;
+
+import com.travelapp.BenchmarkFlights;
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import com.travelapp.repository.FlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FlightService} search and sort paths without a database: the repository is a stub
+ * returning a fixed result, so only validation, metrics, caching, snapshot lookups and
+ * sorting are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightServiceBenchmark {
+
+    // What the frontend's flight search selects
+    private static final Set<String> SEARCH_FIELDS = Set.of("id", "flightNumber", "airline", "origin", "destination",
+        "departureTime", "arrivalTime", "durationMinutes", "price", "stops", "aircraftType", "availableSeats");
+
+    @Param({"10", "100", "1000"})
+    private int flightCount;
+
+    private List<Flight> flights;
+    private String departureDate;
+    private FlightService cachedService;
+    private FlightService uncachedService;
+    private FlightService snapshotService;
+
+    @Setup
+    public void setUp() {
+        LocalDate date = LocalDate.now().plusDays(30);
+        departureDate = date.toString();
+        flights = BenchmarkFlights.sfoToJfk(flightCount, date);
+
+        FlightRepository repository = stubRepository(flights);
+        AirportTimeZones timeZones = new AirportTimeZones();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FlightSearchMetrics searchMetrics = new FlightSearchMetrics(meterRegistry, timeZones);
+        // Never refreshed, so never fresh: searches go to the (stub) repository
+        FlightSnapshotService noSnapshot = new FlightSnapshotService(repository, Duration.ZERO, Duration.ZERO);
+        FlightSnapshotService snapshot = new FlightSnapshotService(repository, Duration.ofDays(1), Duration.ofDays(1));
+        snapshot.refresh();
+        cachedService = new FlightService(repository, timeZones,
+            new FlightSearchCache(10_000, Duration.ofHours(1), Duration.ofSeconds(5), meterRegistry), null, searchMetrics, noSnapshot);
+        uncachedService = new FlightService(repository, timeZones,
+            new FlightSearchCache(0, Duration.ZERO, Duration.ofSeconds(5), meterRegistry), null, searchMetrics, noSnapshot);
+        snapshotService = new FlightService(repository, timeZones,
+            new FlightSearchCache(0, Duration.ZERO, Duration.ofSeconds(5), meterRegistry), null, searchMetrics, snapshot);
+    }
+
+    @Benchmark
+    public List<FlightView> searchFlightsCached() {
+        return cachedService.searchFlights("sfo", "jfk", departureDate, 1, SEARCH_FIELDS);
+    }
+
+    @Benchmark
+    public List<FlightView> searchFlightsUncached() {
+        return uncachedService.searchFlights("sfo", "jfk", departureDate, 1, SEARCH_FIELDS);
+    }
+
+    @Benchmark
+    public List<FlightView> searchFlightsSnapshot() {
+        return snapshotService.searchFlights("sfo", "jfk", departureDate, 1, SEARCH_FIELDS);
+    }
+
+    @Benchmark
+    public List<Flight> sortFlightsByPrice() {
+        return cachedService.sortFlightsByPrice(flights);
+    }
+
+    @Benchmark
+    public List<Flight> sortFlightsByDuration() {
+        return cachedService.sortFlightsByDuration(flights);
+    }
+
+    @Benchmark
+    public List<Flight> sortFlightsByDepartureTime() {
+        return cachedService.sortFlightsByDepartureTime(flights);
+    }
+
+    private static FlightRepository stubRepository(List<Flight> result) {
+        List<FlightView> views = result.stream().map(FlightView::of).toList();
+        return (FlightRepository) Proxy.newProxyInstance(
+            FlightRepository.class.getClassLoader(),
+            new Class<?>[] {FlightRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "findViews", "findViewsDepartingFrom" -> views;
+                case "toString" -> "FlightRepository stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
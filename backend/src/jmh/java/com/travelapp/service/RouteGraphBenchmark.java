@@ -0,0 +1,86 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection search on a generated schedule: every pair of the twelve mapped airports is
+ * flown several times a day for a week, so the scan has many candidate connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteGraphBenchmark {
+
+    private static final String[] AIRPORTS =
+        {"ATL", "BOS", "DEN", "DFW", "JFK", "LAS", "LAX", "MIA", "ORD", "PHX", "SEA", "SFO"};
+    private static final int DAYS = 7;
+
+    @Param({"4", "12"})
+    private int flightsPerRouteAndDay;
+
+    private RouteGraph graph;
+    private LocalDate date;
+    private final long minConnection = Duration.ofMinutes(45).toSeconds();
+    private final long maxConnection = Duration.ofHours(6).toSeconds();
+
+    @Setup
+    public void setUp() {
+        date = LocalDate.now().plusDays(1);
+        Random random = new Random(42);
+        List<Flight> flights = new ArrayList<>();
+        long id = 1;
+        for (int day = 0; day < DAYS; day++) {
+            for (String origin : AIRPORTS) {
+                for (String destination : AIRPORTS) {
+                    if (origin.equals(destination)) {
+                        continue;
+                    }
+                    for (int i = 0; i < flightsPerRouteAndDay; i++) {
+                        int duration = 60 + random.nextInt(300);
+                        Flight flight = new Flight();
+                        flight.setId(id++);
+                        flight.setFlightNumber("UA" + (1000 + i));
+                        flight.setOrigin(origin);
+                        flight.setDestination(destination);
+                        flight.setDepartureTime(date.plusDays(day).atTime(5, 0).plusMinutes(random.nextInt(17 * 60)));
+                        flight.setArrivalTime(flight.getDepartureTime().plusMinutes(duration));
+                        flight.setDurationMinutes(duration);
+                        flight.setPrice(Money.ofMinor(10_000 + random.nextInt(40_000), Flight.CURRENCY));
+                        flight.setAvailableSeats(1 + random.nextInt(200));
+                        flight.setStops(0);
+                        flights.add(flight);
+                    }
+                }
+            }
+        }
+        graph = RouteGraph.build(flights.stream().map(FlightView::of).toList(), new AirportTimeZones());
+    }
+
+    @Benchmark
+    public List<Itinerary> directOnly() {
+        return graph.search("SEA", "MIA", date, 1, 0, 10, minConnection, maxConnection);
+    }
+
+    @Benchmark
+    public List<Itinerary> oneConnection() {
+        return graph.search("SEA", "MIA", date, 1, 1, 10, minConnection, maxConnection);
+    }
+
+    @Benchmark
+    public List<Itinerary> twoConnections() {
+        return graph.search("SEA", "MIA", date, 2, 2, 10, minConnection, maxConnection);
+    }
+}
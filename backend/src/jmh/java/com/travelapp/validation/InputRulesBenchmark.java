@@ -0,0 +1,40 @@
+package com.travelapp.validation;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The checks {@code BookingService} and {@code FlightService} run on every request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputRulesBenchmark {
+
+    private String name = "John Doe";
+    private String email = "john.doe+travel@mail.example.com";
+    private String phone = "+14155550123";
+    private String invalidEmail = "john.doe@@example.com";
+    private String airportCode = "sfo";
+
+    @Benchmark
+    public boolean passengerDetails() {
+        return InputRules.hasTrimmedLength(name, 2, 100)
+            && InputRules.isEmail(email)
+            && InputRules.isPhoneNumber(phone);
+    }
+
+    @Benchmark
+    public boolean invalidPassengerEmail() {
+        return InputRules.isEmail(invalidEmail);
+    }
+
+    @Benchmark
+    public boolean airportCode() {
+        return InputRules.isAirportCodeIgnoreCase(airportCode);
+    }
+}
@@ -0,0 +1,83 @@
+package com.travelapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Token bucket per client: each holds up to {@code burst} requests and refills at
+ * {@code requests-per-second}. A bucket idle long enough to refill completely is dropped, since
+ * a new one starts full anyway; the number kept is bounded by {@code maximum-clients}.
+ * A rate of 0 disables the limit.
+ */
+@Component
+public class ClientRateLimiter {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final Ticker ticker;
+    private final Cache<String, TokenBucket> buckets;
+
+    @Autowired
+    public ClientRateLimiter(@Value("${travelapp.graphql.rate-limit.requests-per-second:20}") double requestsPerSecond,
+                             @Value("${travelapp.graphql.rate-limit.burst:40}") int burst,
+                             @Value("${travelapp.graphql.rate-limit.maximum-clients:100000}") long maximumClients) {
+        this(requestsPerSecond, burst, maximumClients, Ticker.systemTicker());
+    }
+
+    ClientRateLimiter(double requestsPerSecond, int burst, long maximumClients, Ticker ticker) {
+        if (requestsPerSecond > 0 && burst < 1) {
+            throw new IllegalArgumentException("Rate limit burst must be at least 1");
+        }
+        this.tokensPerNano = requestsPerSecond / Duration.ofSeconds(1).toNanos();
+        this.burst = burst;
+        this.ticker = ticker;
+        this.buckets = requestsPerSecond <= 0 ? null : Caffeine.newBuilder()
+            .maximumSize(maximumClients)
+            .expireAfterAccess(Duration.ofNanos((long) Math.ceil(burst / tokensPerNano)))
+            .ticker(ticker)
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return buckets != null;
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns {@link Duration#ZERO} if the request may
+     * proceed, otherwise how long until the bucket holds a token again.
+     */
+    public Duration tryAcquire(String client) {
+        if (buckets == null) {
+            return Duration.ZERO;
+        }
+        long now = ticker.read();
+        return buckets.get(client, key -> new TokenBucket(burst, now)).tryAcquire(now);
+    }
+
+    private final class TokenBucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        synchronized Duration tryAcquire(long now) {
+            tokens = Math.min(burst, tokens + Math.max(0, now - refilledAt) * tokensPerNano);
+            refilledAt = Math.max(refilledAt, now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos((long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.travelapp.config;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Rejects GraphQL operations that are nested deeper than {@code travelapp.graphql.max-depth} or
+ * cost more than {@code travelapp.graphql.max-cost} (see {@link QueryCostCalculator}). Both are
+ * checked after validation and before execution, so a rejected operation never reaches a
+ * repository. Rejections are counted as {@code travelapp.graphql.rejected} by {@code reason}.
+ */
+@Configuration
+public class GraphQlLimitsConfig {
+
+    static final String REJECTED_COUNTER = "travelapp.graphql.rejected";
+
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${travelapp.graphql.max-depth:15}") int maxDepth, MeterRegistry meterRegistry) {
+        Counter rejected = rejectedCounter("depth", meterRegistry);
+        return new MaxQueryDepthInstrumentation(maxDepth, depth -> {
+            rejected.increment();
+            return true;
+        });
+    }
+
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryCostInstrumentation(
+            @Value("${travelapp.graphql.max-cost:5000}") int maxCost, MeterRegistry meterRegistry) {
+        Counter rejected = rejectedCounter("cost", meterRegistry);
+        return new MaxQueryComplexityInstrumentation(maxCost, new QueryCostCalculator(), cost -> {
+            rejected.increment();
+            return true;
+        });
+    }
+
+    static Counter rejectedCounter(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder(REJECTED_COUNTER)
+            .description("GraphQL requests rejected before execution")
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
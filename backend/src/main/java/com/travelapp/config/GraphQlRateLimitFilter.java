@@ -0,0 +1,66 @@
+package com.travelapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Applies {@link ClientRateLimiter} to the GraphQL endpoint before the request body is read,
+ * answering {@code 429 Too Many Requests} with {@code Retry-After} once a client runs out of
+ * tokens. Clients are told apart by address; behind a proxy, set
+ * {@code server.forward-headers-strategy} so that is the caller's rather than the proxy's.
+ */
+@Component
+public class GraphQlRateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TOO_MANY_REQUESTS_BODY = "{\"errors\":[{\"message\":\"Too many requests\"}]}";
+
+    private final ClientRateLimiter rateLimiter;
+    private final String graphQlPath;
+    private final Counter rejected;
+
+    public GraphQlRateLimitFilter(ClientRateLimiter rateLimiter,
+                                  @Value("${spring.graphql.path:/graphql}") String graphQlPath,
+                                  MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.graphQlPath = graphQlPath;
+        this.rejected = GraphQlLimitsConfig.rejectedCounter("rate_limit", meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // CORS preflights carry no query and don't count against the client
+        return !rateLimiter.isEnabled()
+            || HttpMethod.OPTIONS.matches(request.getMethod())
+            || !graphQlPath.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        Duration retryAfter = rateLimiter.tryAcquire(request.getRemoteAddr());
+        if (retryAfter.isZero()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        rejected.increment();
+        long seconds = retryAfter.plusSeconds(1).minusNanos(1).toSeconds();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(TOO_MANY_REQUESTS_BODY);
+    }
+}
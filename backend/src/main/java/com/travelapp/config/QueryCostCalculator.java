@@ -0,0 +1,60 @@
+package com.travelapp.config;
+
+import com.travelapp.controller.FlightController;
+import com.travelapp.service.FlightService;
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+
+import java.util.Collection;
+
+/**
+ * Static cost of a GraphQL query, worked out from the document and its variables before any
+ * resolver runs. Every selected field costs 1. Root fields that reach the database add a
+ * weight, and list fields multiply the cost of their selection by the most items they can
+ * return: the requested page size or input count where the query gives one, otherwise the
+ * service's own bound. Repeating a field under aliases repeats its cost.
+ */
+class QueryCostCalculator implements FieldComplexityCalculator {
+
+    /** A read that can run one database query. */
+    static final int QUERY_WEIGHT = 10;
+
+    /** A booking: a row lock, a seat update and an insert. */
+    static final int BOOKING_WEIGHT = 50;
+
+    /** {@code searchFlights} is not paged; sized for a busy route and day. */
+    static final int SEARCH_RESULTS = 50;
+
+    @Override
+    public int calculate(FieldComplexityEnvironment env, int childComplexity) {
+        String coordinate = env.getParentType().getName() + "." + env.getFieldDefinition().getName();
+        return switch (coordinate) {
+            case "Query.searchFlights" -> QUERY_WEIGHT + times(childComplexity, SEARCH_RESULTS);
+            case "Query.flight", "Query.flights", "Query.booking" -> QUERY_WEIGHT + childComplexity;
+            case "FlightConnection.edges" -> 1 + times(childComplexity,
+                intArgument(env.getParentEnvironment(), "first", FlightController.DEFAULT_PAGE_SIZE));
+            case "Query.searchItineraries" -> QUERY_WEIGHT + times(childComplexity,
+                intArgument(env, "first", FlightController.DEFAULT_ITINERARY_COUNT));
+            case "Itinerary.legs" -> 1 + times(childComplexity,
+                intArgument(env.getParentEnvironment(), "maxConnections", FlightService.MAX_CONNECTIONS) + 1);
+            case "Query.fareCalendar" -> QUERY_WEIGHT + times(childComplexity, FlightService.MAX_CALENDAR_DAYS);
+            case "Mutation.createBooking" -> BOOKING_WEIGHT + childComplexity;
+            case "Mutation.createBookings" -> times(BOOKING_WEIGHT + childComplexity, listArgument(env, "inputs"));
+            default -> 1 + childComplexity;
+        };
+    }
+
+    private static int times(int cost, int count) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) cost * count);
+    }
+
+    private static int intArgument(FieldComplexityEnvironment env, String name, int fallback) {
+        Object value = env == null ? null : env.getArguments().get(name);
+        // Out-of-range values are rejected by the service; cost them as at least one item
+        return value instanceof Integer count ? Math.max(count, 1) : fallback;
+    }
+
+    private static int listArgument(FieldComplexityEnvironment env, String name) {
+        return env.getArguments().get(name) instanceof Collection<?> items ? Math.max(items.size(), 1) : 1;
+    }
+}
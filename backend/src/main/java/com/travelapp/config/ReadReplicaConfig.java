@@ -0,0 +1,83 @@
+package com.travelapp.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}, which includes
+ * searches and booking lookups) to the read replicas listed in
+ * {@code travelapp.datasource.replicas.urls}, and everything else to
+ * {@code spring.datasource.url}. Without replicas the auto-configured pool is used as before.
+ *
+ * The application's {@link DataSource} hands out a placeholder connection and only picks a
+ * database when the first statement runs. By then the transaction has marked the connection
+ * read-only or not, and read-only ones come from {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty("travelapp.datasource.replicas.urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReadYourWrites readYourWrites(
+            @Value("${travelapp.datasource.replicas.max-lag:PT5S}") Duration maxLag,
+            @Value("${travelapp.datasource.replicas.check-interval:PT5S}") Duration checkInterval,
+            @Value("${travelapp.datasource.replicas.maximum-clients:100000}") long maximumClients) {
+        return new ReadYourWrites(maxLag.plus(checkInterval), maximumClients);
+    }
+
+    @Bean
+    ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource, ReadYourWrites readYourWrites, DataSourceProperties properties,
+            @Value("${travelapp.datasource.replicas.urls}") List<String> urls,
+            @Value("${travelapp.datasource.replicas.pool-size:10}") int poolSize,
+            @Value("${travelapp.datasource.replicas.connection-timeout:PT1S}") Duration connectionTimeout,
+            @Value("${travelapp.datasource.replicas.max-lag:PT5S}") Duration maxLag,
+            MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("travelapp-replica-" + (i + 1));
+            config.setJdbcUrl(urls.get(i).trim());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setMaximumPoolSize(poolSize);
+            // Fail over quickly rather than hold a read for the primary pool's full timeout
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            // Start even when a replica is down; it takes reads once a check reaches it
+            config.setInitializationFailTimeout(-1);
+            config.setMetricRegistry(meterRegistry);
+            replicas.put(config.getPoolName(), new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWrites, maxLag, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,64 @@
+package com.travelapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.travelapp.service.FlightSeatsChangedEvent;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for a while after it booked, so a booking it just made
+ * is there when it looks it up, however far behind the replicas are.
+ *
+ * The API has no sessions; as for rate limiting, a client is its address. Each request binds
+ * the address to its thread, which is also where the GraphQL controllers run and commit. A
+ * committed booking marks the client, and for {@code window} after that
+ * {@link #requiresPrimary()} sends its read-only transactions to the primary. The window covers
+ * the largest lag a replica may have and still take reads, plus the time until that is checked.
+ */
+class ReadYourWrites extends OncePerRequestFilter {
+
+    private static final ThreadLocal<String> CLIENT = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    ReadYourWrites(Duration window, long maximumClients) {
+        this.recentWriters = Caffeine.newBuilder()
+            .expireAfterWrite(window)
+            .maximumSize(maximumClients)
+            .build();
+    }
+
+    /** Whether the current client booked within the window. */
+    boolean requiresPrimary() {
+        String client = CLIENT.get();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void onSeatsChanged(FlightSeatsChangedEvent event) {
+        String client = CLIENT.get();
+        if (client != null) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        CLIENT.set(request.getRemoteAddr());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CLIENT.remove();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.travelapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connections for read-only transactions (see {@link ReadReplicaConfig}): one of the replicas
+ * that is up and no further behind the primary than {@code max-lag}, taken in turn, or the
+ * primary when there is none.
+ *
+ * Each replica is asked how far its replay is behind (on PostgreSQL; other databases only have
+ * to answer) once on construction, so reads start on the healthy ones right away, and then every
+ * {@code check-interval}. A replica that can't be reached or lags too much takes no reads until
+ * a later check finds it healthy again. A replica that fails to
+ * hand out a connection is taken out at once, and the read moves on to the next one.
+ *
+ * Reads for a client that recently booked go to the primary, see {@link ReadYourWrites}.
+ */
+class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // A replica that has replayed everything it received is current, however old its last
+    // replayed transaction; otherwise it is as far behind as that transaction is old
+    private static final String POSTGRES_LAG = """
+        SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                    ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+               END
+        """;
+
+    /** How far a replica's data is behind the primary. */
+    @FunctionalInterface
+    interface LagProbe {
+        Duration lag(Connection replica) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final ReadYourWrites readYourWrites;
+    private final Duration maxLag;
+    private final LagProbe lagProbe;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                             Duration maxLag, MeterRegistry meterRegistry) {
+        this(primary, replicas, readYourWrites, maxLag, ReplicaRoutingDataSource::probeLag, meterRegistry);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReadYourWrites readYourWrites,
+                             Duration maxLag, LagProbe lagProbe, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.maxLag = maxLag;
+        this.lagProbe = lagProbe;
+        replicas.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            this.replicas.add(replica);
+            Gauge.builder("travelapp.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                .description("Whether the replica takes reads (1) or not (0), as of its last check")
+                .tag("replica", name)
+                .register(meterRegistry);
+            Gauge.builder("travelapp.datasource.replica.lag", replica, r -> r.lagSeconds)
+                .description("How far the replica was behind the primary at its last check")
+                .baseUnit("seconds")
+                .tag("replica", name)
+                .register(meterRegistry);
+        });
+        this.replicaReads = readCounter("replica", meterRegistry);
+        this.primaryReads = readCounter("primary", meterRegistry);
+        checkReplicas();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!readYourWrites.requiresPrimary()) {
+            int start = next.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+                if (!replica.available) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replicaReads.increment();
+                    return connection;
+                } catch (SQLException e) {
+                    replica.available = false;
+                    log.warn("Read replica {} failed to connect; reading elsewhere until it recovers", replica.name, e);
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    @Scheduled(fixedDelayString = "${travelapp.datasource.replicas.check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            // The first check reports a replica that is out, as later ones report it going out
+            boolean report = wasAvailable || !replica.checked;
+            replica.checked = true;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Duration lag = lagProbe.lag(connection);
+                replica.lagSeconds = lag.toMillis() / 1000.0;
+                replica.available = lag.compareTo(maxLag) <= 0;
+                if (report && !replica.available) {
+                    log.warn("Read replica {} is {} behind the primary; reading elsewhere until it catches up",
+                             replica.name, lag);
+                }
+            } catch (SQLException e) {
+                replica.available = false;
+                if (report) {
+                    log.warn("Read replica {} is unreachable; reading elsewhere until it recovers", replica.name, e);
+                }
+            }
+            if (!wasAvailable && replica.available) {
+                log.info("Read replica {} takes reads", replica.name);
+            }
+        }
+    }
+
+    /** Closes the replica pools; the primary belongs to the application context. */
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable pool) {
+                try {
+                    pool.close();
+                } catch (IOException e) {
+                    log.warn("Could not close read replica {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    private static Duration probeLag(Connection replica) throws SQLException {
+        if (!"PostgreSQL".equals(replica.getMetaData().getDatabaseProductName())) {
+            if (!replica.isValid(1)) {
+                throw new SQLException("Replica connection is not valid");
+            }
+            return Duration.ZERO;
+        }
+        try (Statement statement = replica.createStatement();
+             ResultSet result = statement.executeQuery(POSTGRES_LAG)) {
+            result.next();
+            // NULL, read as 0, until the replica has replayed anything from the primary
+            return Duration.ofMillis(Math.round(result.getDouble(1) * 1000));
+        }
+    }
+
+    private static Counter readCounter(String target, MeterRegistry meterRegistry) {
+        return Counter.builder("travelapp.datasource.reads")
+            .description("Connections for read-only transactions by the database that served them")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        // Out until a check finds it healthy
+        volatile boolean available;
+        // Only touched by checkReplicas, which the scheduler never runs concurrently
+        boolean checked;
+        volatile double lagSeconds;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
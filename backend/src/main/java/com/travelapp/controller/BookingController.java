@@ -2,43 +2,169 @@ package com.travelapp.controller;
 
 import com.travelapp.controller.dto.BookingInput;
 import com.travelapp.controller.dto.BookingResult;
-import com.travelapp.model.Booking;
+import com.travelapp.model.BookingView;
+import com.travelapp.model.FlightView;
+import com.travelapp.service.BookingIdempotencyService;
+import com.travelapp.service.BookingOutcome;
+import com.travelapp.service.BookingRequest;
 import com.travelapp.service.BookingService;
+import com.travelapp.service.FlightService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
 import org.springframework.stereotype.Controller;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @Controller
 public class BookingController {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingController.class);
+
+    static final String CREATE_TIMER = "travelapp.booking.create";
+
     private final BookingService bookingService;
+    private final BookingIdempotencyService idempotencyService;
+    private final FlightService flightService;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> createTimers;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, BookingIdempotencyService idempotencyService,
+                             FlightService flightService, MeterRegistry meterRegistry) {
         this.bookingService = bookingService;
+        this.idempotencyService = idempotencyService;
+        this.flightService = flightService;
+        this.meterRegistry = meterRegistry;
+        this.createTimers = Stream.of("success", "invalid", "unavailable", "error")
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), outcome -> createTimer(outcome, meterRegistry)));
     }
 
+    /**
+     * Books seats and reports failures in the result rather than as GraphQL errors. A retry with
+     * the same {@code idempotencyKey} gets the original booking back instead of a second one.
+     * {@code travelapp.booking.create} is tagged with the outcome: {@code invalid} for bad input,
+     * {@code unavailable} when the flight can't take the booking and {@code error} otherwise.
+     */
     @MutationMapping
     public BookingResult createBooking(@Argument BookingInput input) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
         try {
-            Booking booking = bookingService.createBooking(
-                input.flightId(),
-                input.passengerName(),
-                input.passengerEmail(),
-                input.passengerPhone()
-            );
+            BookingView booking = idempotencyService.createBooking(toRequest(input), input.idempotencyKey());
+            outcome = "success";
             return BookingResult.success(booking);
         } catch (IllegalArgumentException e) {
+            outcome = "invalid";
             return BookingResult.failure(e.getMessage());
         } catch (IllegalStateException e) {
+            outcome = "unavailable";
             return BookingResult.failure(e.getMessage());
         } catch (Exception e) {
+            log.error("Booking on flight {} failed", input.flightId(), e);
             return BookingResult.failure("An unexpected error occurred");
+        } finally {
+            sample.stop(createTimer(outcome));
+        }
+    }
+
+    /**
+     * Books a group in one transaction, with one result per input in the same order. Each
+     * booking counts towards {@code travelapp.booking.create} with its own outcome, all with
+     * the latency of the whole group.
+     */
+    @MutationMapping
+    public List<BookingResult> createBookings(@Argument List<BookingInput> inputs) {
+        if (inputs.stream().anyMatch(input -> input.idempotencyKey() != null)) {
+            return Collections.nCopies(inputs.size(),
+                BookingResult.failure("Idempotency keys are only supported by createBooking"));
+        }
+        List<BookingRequest> requests = inputs.stream().map(BookingController::toRequest).toList();
+        long startedAt = System.nanoTime();
+        List<BookingOutcome> outcomes;
+        try {
+            outcomes = idempotencyService.createBookings(requests);
+        } catch (IllegalArgumentException e) {
+            return Collections.nCopies(inputs.size(), BookingResult.failure(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Group booking of {} failed", inputs.size(), e);
+            return Collections.nCopies(inputs.size(), BookingResult.failure("An unexpected error occurred"));
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        List<BookingResult> results = new ArrayList<>(outcomes.size());
+        for (BookingOutcome outcome : outcomes) {
+            if (outcome.isSuccess()) {
+                createTimer("success").record(elapsed, TimeUnit.NANOSECONDS);
+                results.add(BookingResult.success(outcome.booking()));
+            } else {
+                boolean invalid = outcome.failure() instanceof IllegalArgumentException;
+                createTimer(invalid ? "invalid" : "unavailable").record(elapsed, TimeUnit.NANOSECONDS);
+                results.add(BookingResult.failure(outcome.failure().getMessage()));
+            }
         }
+        return results;
+    }
+
+    private static BookingRequest toRequest(BookingInput input) {
+        return new BookingRequest(input.flightId(), input.passengerName(), input.passengerEmail(),
+                                  input.passengerPhone(), input.seats() != null ? input.seats() : 1);
+    }
+
+    private Timer createTimer(String outcome) {
+        return createTimers.get(outcome);
+    }
+
+    private static Timer createTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder(CREATE_TIMER)
+            .description("Booking creation latency")
+            .tag("outcome", outcome)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
     }
 
+    /**
+     * Looks up one booking, from the booking cache when it is there; see
+     * {@link BookingService#findViewByBookingReference}.
+     */
     @QueryMapping
-    public Booking booking(@Argument String bookingReference) {
-        return bookingService.findByBookingReference(bookingReference).orElse(null);
+    public BookingView booking(@Argument String bookingReference) {
+        return bookingService.findViewByBookingReference(bookingReference).orElse(null);
+    }
+
+    /**
+     * Resolves {@code Booking.flight} for the request's bookings a batch at a time: from the
+     * flight snapshot where possible and with a single {@code IN} query for the rest.
+     */
+    @BatchMapping(typeName = "Booking")
+    public Map<BookingView, FlightView> flight(List<BookingView> bookings) {
+        Set<Long> missingIds = new HashSet<>();
+        for (BookingView booking : bookings) {
+            if (booking.flight() == null) {
+                missingIds.add(booking.flightId());
+            }
+        }
+        Map<Long, FlightView> loaded = flightService.findViewsById(missingIds).stream()
+            .collect(Collectors.toMap(FlightView::id, Function.identity()));
+
+        Map<BookingView, FlightView> flights = new HashMap<>();
+        for (BookingView booking : bookings) {
+            flights.put(booking, booking.flight() != null ? booking.flight() : loaded.get(booking.flightId()));
+        }
+        return flights;
     }
 }
@@ -1,9 +1,19 @@
 package com.travelapp.controller;
 
-import com.travelapp.model.Flight;
+import com.travelapp.controller.dto.FlightConnection;
+import com.travelapp.controller.dto.FlightEdge;
+import com.travelapp.controller.dto.PageInfo;
+import com.travelapp.model.DailyFare;
+import com.travelapp.model.FlightSort;
+import com.travelapp.model.FlightView;
+import com.travelapp.service.FlightFilter;
+import com.travelapp.service.FlightPage;
 import com.travelapp.service.FlightService;
+import com.travelapp.service.Itinerary;
+import graphql.schema.DataFetchingFieldSelectionSet;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.stereotype.Controller;
 
 import java.util.List;
@@ -11,6 +21,9 @@ import java.util.List;
 @Controller
 public class FlightController {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int DEFAULT_ITINERARY_COUNT = 10;
+
     private final FlightService flightService;
 
     public FlightController(FlightService flightService) {
@@ -18,17 +31,99 @@ public class FlightController {
     }
 
     @QueryMapping
-    public List<Flight> searchFlights(
+    public List<FlightView> searchFlights(
+        @Argument String origin,
+        @Argument String destination,
+        @Argument String departureDate,
+        @Argument Integer passengers,
+        DataFetchingFieldSelectionSet selectionSet
+    ) {
+        return flightService.searchFlights(origin, destination, departureDate, passengers != null ? passengers : 1,
+                                           SelectedFields.names(selectionSet, "*"));
+    }
+
+    @QueryMapping
+    public FlightConnection flights(
         @Argument String origin,
         @Argument String destination,
         @Argument String departureDate,
+        @Argument Integer passengers,
+        @Argument FlightFilter filter,
+        @Argument FlightSort sort,
+        @Argument Integer first,
+        @Argument String after,
+        DataFetchingFieldSelectionSet selectionSet
+    ) {
+        FlightPage page = flightService.searchFlightPage(
+            origin,
+            destination,
+            departureDate,
+            passengers != null ? passengers : 1,
+            filter,
+            sort != null ? sort : FlightSort.DEPARTURE_TIME,
+            first != null ? first : DEFAULT_PAGE_SIZE,
+            after,
+            SelectedFields.names(selectionSet, "edges/node/*")
+        );
+        List<FlightEdge> edges = page.flights().stream()
+            .map(flight -> new FlightEdge(page.cursorOf(flight), flight))
+            .toList();
+        PageInfo pageInfo = new PageInfo(
+            page.hasNextPage(),
+            after != null,
+            edges.isEmpty() ? null : edges.get(0).cursor(),
+            edges.isEmpty() ? null : edges.get(edges.size() - 1).cursor()
+        );
+        return new FlightConnection(edges, pageInfo);
+    }
+
+    @QueryMapping
+    public List<Itinerary> searchItineraries(
+        @Argument String origin,
+        @Argument String destination,
+        @Argument String departureDate,
+        @Argument Integer passengers,
+        @Argument Integer maxConnections,
+        @Argument Integer first
+    ) {
+        return flightService.searchItineraries(
+            origin,
+            destination,
+            departureDate,
+            passengers != null ? passengers : 1,
+            maxConnections != null ? maxConnections : FlightService.MAX_CONNECTIONS,
+            first != null ? first : DEFAULT_ITINERARY_COUNT
+        );
+    }
+
+    @QueryMapping
+    public List<DailyFare> fareCalendar(
+        @Argument String origin,
+        @Argument String destination,
+        @Argument String from,
+        @Argument String to,
         @Argument Integer passengers
     ) {
-        return flightService.searchFlights(origin, destination, departureDate);
+        return flightService.fareCalendar(origin, destination, from, to, passengers != null ? passengers : 1);
     }
 
     @QueryMapping
-    public Flight flight(@Argument Long id) {
-        return flightService.findById(id).orElse(null);
+    public FlightView flight(@Argument Long id, DataFetchingFieldSelectionSet selectionSet) {
+        return flightService.findViewById(id, SelectedFields.names(selectionSet, "*")).orElse(null);
+    }
+
+    @SchemaMapping(typeName = "Flight")
+    public double price(FlightView flight) {
+        return flight.price().toDouble();
+    }
+
+    @SchemaMapping(typeName = "Itinerary")
+    public double totalPrice(Itinerary itinerary) {
+        return itinerary.totalPrice().toDouble();
+    }
+
+    @SchemaMapping(typeName = "DailyFare")
+    public double lowestPrice(DailyFare fare) {
+        return fare.lowestPrice().toDouble();
     }
 }
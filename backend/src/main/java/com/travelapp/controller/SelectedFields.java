@@ -0,0 +1,25 @@
+package com.travelapp.controller;
+
+import graphql.schema.DataFetchingFieldSelectionSet;
+import graphql.schema.SelectedField;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a client asked for. GraphQL field names match the components of
+ * {@link com.travelapp.model.FlightView} and {@link com.travelapp.model.BookingView},
+ * so queries can read only those columns.
+ */
+final class SelectedFields {
+
+    private SelectedFields() {
+    }
+
+    /** Names of the selected fields matching {@code glob}, e.g. {@code "*"} or {@code "edges/node/*"}. */
+    static Set<String> names(DataFetchingFieldSelectionSet selectionSet, String glob) {
+        return selectionSet.getFields(glob).stream()
+            .map(SelectedField::getName)
+            .collect(Collectors.toSet());
+    }
+}
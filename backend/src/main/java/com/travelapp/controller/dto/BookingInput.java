@@ -4,5 +4,7 @@ public record BookingInput(
     Long flightId,
     String passengerName,
     String passengerEmail,
-    String passengerPhone
+    String passengerPhone,
+    Integer seats,
+    String idempotencyKey
 ) {}
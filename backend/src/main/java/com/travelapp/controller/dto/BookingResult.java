@@ -1,13 +1,18 @@
 package com.travelapp.controller.dto;
 
 import com.travelapp.model.Booking;
+import com.travelapp.model.BookingView;
 
 public record BookingResult(
     boolean success,
-    Booking booking,
+    BookingView booking,
     String message
 ) {
     public static BookingResult success(Booking booking) {
+        return success(BookingView.of(booking));
+    }
+
+    public static BookingResult success(BookingView booking) {
         return new BookingResult(true, booking, "Booking created successfully");
     }
 
@@ -0,0 +1,8 @@
+package com.travelapp.controller.dto;
+
+import java.util.List;
+
+public record FlightConnection(
+    List<FlightEdge> edges,
+    PageInfo pageInfo
+) {}
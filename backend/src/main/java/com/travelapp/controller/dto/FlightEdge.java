@@ -0,0 +1,8 @@
+package com.travelapp.controller.dto;
+
+import com.travelapp.model.FlightView;
+
+public record FlightEdge(
+    String cursor,
+    FlightView node
+) {}
@@ -0,0 +1,8 @@
+package com.travelapp.controller.dto;
+
+public record PageInfo(
+    boolean hasNextPage,
+    boolean hasPreviousPage,
+    String startCursor,
+    String endCursor
+) {}
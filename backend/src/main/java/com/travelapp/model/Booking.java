@@ -1,14 +1,22 @@
 package com.travelapp.model;
 
+import com.travelapp.validation.InputFormat;
+import com.travelapp.validation.InputRule;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "booking")
+@Table(name = "booking", uniqueConstraints =
+    @UniqueConstraint(name = Booking.REFERENCE_CONSTRAINT, columnNames = "booking_reference"))
 public class Booking {
 
+    /** Name of the unique constraint on {@code booking_reference}, as created by changeset 002. */
+    public static final String REFERENCE_CONSTRAINT = "booking_booking_reference_key";
+    public static final int MAX_SEATS = 9;
+    public static final int MAX_IDEMPOTENCY_KEY_LENGTH = 64;
+
     @Id
     @GeneratedValue
     @Column(name = "id", columnDefinition = "UUID")
@@ -19,10 +27,14 @@ public class Booking {
     @NotNull(message = "Flight is required")
     private Flight flight;
 
+    // Copy of the flight's departure time: flight is partitioned by it, so fk_booking_flight
+    // references (flight_id, flight_departure_time), and bookings are archived by it
+    @Column(name = "flight_departure_time", nullable = false)
+    private LocalDateTime flightDepartureTime;
+
     @NotBlank
-    @Size(min = 6, max = 6)
-    @Pattern(regexp = "^[A-Z0-9]{6}$")
-    @Column(name = "booking_reference", nullable = false, unique = true, length = 6)
+    @InputFormat(InputRule.BOOKING_REFERENCE)
+    @Column(name = "booking_reference", nullable = false, length = 6)
     private String bookingReference;
 
     @NotBlank(message = "Passenger name is required")
@@ -31,15 +43,21 @@ public class Booking {
     private String passengerName;
 
     @NotBlank(message = "Passenger email is required")
-    @Email(message = "Passenger email must be valid")
+    @InputFormat(value = InputRule.EMAIL, message = "Passenger email must be valid")
     @Column(name = "passenger_email", nullable = false, length = 255)
     private String passengerEmail;
 
     @NotBlank(message = "Passenger phone is required")
-    @Pattern(regexp = "^\\+?[1-9]\\d{1,14}$", message = "Passenger phone must be a valid phone number")
+    @InputFormat(value = InputRule.PHONE_NUMBER, message = "Passenger phone must be a valid phone number")
     @Column(name = "passenger_phone", nullable = false, length = 20)
     private String passengerPhone;
 
+    @NotNull
+    @Min(value = 1, message = "Seats must be at least 1")
+    @Max(value = MAX_SEATS, message = "Seats must be at most " + MAX_SEATS)
+    @Column(name = "seats", nullable = false)
+    private Integer seats;
+
     @NotNull
     @Column(name = "booking_date", nullable = false)
     private LocalDateTime bookingDate;
@@ -49,6 +67,10 @@ public class Booking {
     @Column(name = "status", nullable = false, length = 20)
     private BookingStatus status;
 
+    @Size(max = MAX_IDEMPOTENCY_KEY_LENGTH)
+    @Column(name = "idempotency_key", unique = true, length = MAX_IDEMPOTENCY_KEY_LENGTH)
+    private String idempotencyKey;
+
     // Default constructor
     public Booking() {
     }
@@ -62,6 +84,9 @@ public class Booking {
         if (status == null) {
             status = BookingStatus.CONFIRMED;
         }
+        if (seats == null) {
+            seats = 1;
+        }
     }
 
     // Getters and Setters
@@ -80,6 +105,11 @@ public class Booking {
 
     public void setFlight(Flight flight) {
         this.flight = flight;
+        this.flightDepartureTime = flight == null ? null : flight.getDepartureTime();
+    }
+
+    public LocalDateTime getFlightDepartureTime() {
+        return flightDepartureTime;
     }
 
     public String getBookingReference() {
@@ -114,6 +144,14 @@ public class Booking {
         this.passengerPhone = passengerPhone;
     }
 
+    public Integer getSeats() {
+        return seats;
+    }
+
+    public void setSeats(Integer seats) {
+        this.seats = seats;
+    }
+
     public LocalDateTime getBookingDate() {
         return bookingDate;
     }
@@ -129,4 +167,12 @@ public class Booking {
     public void setStatus(BookingStatus status) {
         this.status = status;
     }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
 }
@@ -0,0 +1,45 @@
+package com.travelapp.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable, detached copy of a {@link Booking} row, served to GraphQL as the {@code Booking} type.
+ *
+ * Queries fill in only the fields the client selected. The booked flight is referenced by
+ * {@code flightId} and resolved separately; {@code flight} is only set when the flight is
+ * already at hand, as it is right after a booking is made.
+ */
+public record BookingView(
+    UUID id,
+    String bookingReference,
+    Long flightId,
+    FlightView flight,
+    String passengerName,
+    String passengerEmail,
+    String passengerPhone,
+    Integer seats,
+    LocalDateTime bookingDate,
+    BookingStatus status
+) {
+    public static BookingView of(Booking booking) {
+        return new BookingView(
+            booking.getId(),
+            booking.getBookingReference(),
+            booking.getFlight().getId(),
+            FlightView.of(booking.getFlight()),
+            booking.getPassengerName(),
+            booking.getPassengerEmail(),
+            booking.getPassengerPhone(),
+            booking.getSeats(),
+            booking.getBookingDate(),
+            booking.getStatus()
+        );
+    }
+
+    /** This view with the flight left to be resolved by {@code flightId}. */
+    public BookingView withoutFlight() {
+        return flight == null ? this : new BookingView(id, bookingReference, flightId, null, passengerName,
+            passengerEmail, passengerPhone, seats, bookingDate, status);
+    }
+}
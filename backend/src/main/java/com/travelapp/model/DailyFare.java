@@ -0,0 +1,10 @@
+package com.travelapp.model;
+
+import java.time.LocalDate;
+
+/**
+ * The cheapest fare on one departure day of a route, and how many flights that day still have
+ * the requested seats. Served to GraphQL as the {@code DailyFare} type.
+ */
+public record DailyFare(LocalDate date, Money lowestPrice, long flights) {
+}
@@ -1,36 +1,46 @@
 package com.travelapp.model;
 
+import com.travelapp.validation.InputFormat;
+import com.travelapp.validation.InputRule;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.generator.EventType;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Currency;
 
 @Entity
 @Table(name = "flight")
 public class Flight {
 
+    /** Currency of every fare; the flight table stores amounts only. */
+    public static final Currency CURRENCY = Money.USD;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank(message = "Flight number is required")
-    @Pattern(regexp = "^[A-Z]{2}\\d{3,4}$", message = "Flight number must be in format XX000 or XX0000")
+    @InputFormat(value = InputRule.FLIGHT_NUMBER, message = "Flight number must be in format XX000 or XX0000")
     @Column(name = "flight_number", nullable = false, length = 10)
     private String flightNumber;
 
     @NotBlank(message = "Airline is required")
+    @Size(max = 100, message = "Airline must be at most 100 characters")
     @Column(name = "airline", nullable = false, length = 100)
     private String airline;
 
     @NotBlank(message = "Origin is required")
     @Size(min = 3, max = 3, message = "Origin must be a 3-letter airport code")
-    @Pattern(regexp = "^[A-Z]{3}$", message = "Origin must be a valid 3-letter airport code")
+    @InputFormat(value = InputRule.AIRPORT_CODE, message = "Origin must be a valid 3-letter airport code")
     @Column(name = "origin", nullable = false, length = 3)
     private String origin;
 
     @NotBlank(message = "Destination is required")
     @Size(min = 3, max = 3, message = "Destination must be a 3-letter airport code")
-    @Pattern(regexp = "^[A-Z]{3}$", message = "Destination must be a valid 3-letter airport code")
+    @InputFormat(value = InputRule.AIRPORT_CODE, message = "Destination must be a valid 3-letter airport code")
     @Column(name = "destination", nullable = false, length = 3)
     private String destination;
 
@@ -49,10 +59,9 @@ public class Flight {
     private Integer durationMinutes;
 
     @NotNull(message = "Price is required")
-    @Positive(message = "Price must be greater than zero")
-    @DecimalMin(value = "0.01", message = "Price must be at least 0.01")
+    @Convert(converter = FlightPriceConverter.class)
     @Column(name = "price", nullable = false, precision = 10, scale = 2)
-    private BigDecimal price;
+    private Money price;
 
     @NotNull(message = "Available seats is required")
     @Min(value = 0, message = "Available seats cannot be negative")
@@ -65,9 +74,15 @@ public class Flight {
     private Integer stops;
 
     @NotBlank(message = "Aircraft type is required")
+    @Size(max = 50, message = "Aircraft type must be at most 50 characters")
     @Column(name = "aircraft_type", nullable = false, length = 50)
     private String aircraftType;
 
+    // Set from the database clock on every insert and update; see FlightSnapshotService
+    @CurrentTimestamp(event = {EventType.INSERT, EventType.UPDATE}, source = SourceType.DB)
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     // Default constructor
     public Flight() {
     }
@@ -130,14 +145,24 @@ public class Flight {
         this.arrivalTime = arrivalTime;
     }
 
-    public BigDecimal getPrice() {
+    @AssertTrue(message = "Arrival time must be after departure time")
+    private boolean isArrivalAfterDeparture() {
+        return departureTime == null || arrivalTime == null || arrivalTime.isAfter(departureTime);
+    }
+
+    public Money getPrice() {
         return price;
     }
 
-    public void setPrice(BigDecimal price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
+    @AssertTrue(message = "Price must be greater than zero")
+    private boolean isPricePositive() {
+        return price == null || price.isPositive();
+    }
+
     public Integer getAvailableSeats() {
         return availableSeats;
     }
@@ -169,4 +194,12 @@ public class Flight {
     public void setAircraftType(String aircraftType) {
         this.aircraftType = aircraftType;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
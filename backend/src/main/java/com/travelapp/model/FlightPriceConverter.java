@@ -0,0 +1,30 @@
+package com.travelapp.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Flight#getPrice()} to the {@code price DECIMAL(10,2)} column. The flight table
+ * holds amounts only and every fare is in {@link Flight#CURRENCY}.
+ */
+@Converter
+public class FlightPriceConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money price) {
+        if (price == null) {
+            return null;
+        }
+        if (!price.currency().equals(Flight.CURRENCY)) {
+            throw new IllegalArgumentException("Flight prices must be in " + Flight.CURRENCY + ": " + price);
+        }
+        return price.toBigDecimal();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal price) {
+        return price == null ? null : Money.of(price, Flight.CURRENCY);
+    }
+}
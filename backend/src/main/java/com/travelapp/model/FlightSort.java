@@ -0,0 +1,20 @@
+package com.travelapp.model;
+
+public enum FlightSort {
+    DEPARTURE_TIME("departureTime"),
+    PRICE("price"),
+    DURATION("durationMinutes");
+
+    private final String property;
+
+    FlightSort(String property) {
+        this.property = property;
+    }
+
+    /**
+     * The {@link Flight} attribute this order sorts by.
+     */
+    public String getProperty() {
+        return property;
+    }
+}
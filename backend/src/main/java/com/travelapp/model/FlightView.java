@@ -0,0 +1,47 @@
+package com.travelapp.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable, detached copy of a {@link Flight} row, read with a constructor query instead of
+ * being loaded as a managed entity. Served to GraphQL as the {@code Flight} type.
+ */
+public record FlightView(
+    long id,
+    String flightNumber,
+    String airline,
+    String origin,
+    String destination,
+    LocalDateTime departureTime,
+    LocalDateTime arrivalTime,
+    int durationMinutes,
+    Money price,
+    int availableSeats,
+    int stops,
+    String aircraftType,
+    Instant updatedAt
+) {
+    /** JPQL select list matching the record components, for {@code SELECT new} queries. */
+    public static final String SELECT = "SELECT new com.travelapp.model.FlightView(f.id, f.flightNumber, "
+        + "f.airline, f.origin, f.destination, f.departureTime, f.arrivalTime, f.durationMinutes, f.price, "
+        + "f.availableSeats, f.stops, f.aircraftType, f.updatedAt) FROM Flight f ";
+
+    public static FlightView of(Flight flight) {
+        return new FlightView(
+            flight.getId(),
+            flight.getFlightNumber(),
+            flight.getAirline(),
+            flight.getOrigin(),
+            flight.getDestination(),
+            flight.getDepartureTime(),
+            flight.getArrivalTime(),
+            flight.getDurationMinutes(),
+            flight.getPrice(),
+            flight.getAvailableSeats(),
+            flight.getStops(),
+            flight.getAircraftType(),
+            flight.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,79 @@
+package com.travelapp.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money held as a whole number of minor units (cents for US dollars) and its
+ * currency. Comparing and adding amounts is plain {@code long} arithmetic, with no
+ * {@link BigDecimal} created along the way.
+ *
+ * Amounts in different currencies are never compared or added; doing so throws
+ * {@link IllegalArgumentException}.
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    public static final Currency USD = Currency.getInstance("USD");
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money ofMinor(long minorUnits, Currency currency) {
+        return new Money(minorUnits, currency);
+    }
+
+    /**
+     * The exact amount; throws {@link ArithmeticException} if it has more decimal places than
+     * the currency, or doesn't fit in a {@code long} of minor units.
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        return new Money(amount.movePointRight(currency.getDefaultFractionDigits()).longValueExact(), currency);
+    }
+
+    /** The amount rounded down to a whole minor unit, e.g. for an upper bound typed by a user. */
+    public static Money floor(BigDecimal amount, Currency currency) {
+        return of(amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.FLOOR), currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    /** The amount in major units, as served by the GraphQL {@code Float} price fields. */
+    public double toDouble() {
+        return switch (currency.getDefaultFractionDigits()) {
+            case 0 -> minorUnits;
+            case 2 -> minorUnits / 100.0;
+            default -> toBigDecimal().doubleValue();
+        };
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.travelapp.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A booking event waiting to be delivered to one sink. Written in the same transaction as the
+ * booking, so it exists exactly when the booking does, and deleted once delivered.
+ */
+@Entity
+@Table(name = "outbox_message")
+public class OutboxMessage {
+
+    public static final int MAX_ERROR_LENGTH = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_message_id")
+    @SequenceGenerator(name = "outbox_message_id", sequenceName = "outbox_message_id_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false, columnDefinition = "UUID")
+    private UUID bookingId;
+
+    @Column(name = "sink", nullable = false, length = 50)
+    private String sink;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = MAX_ERROR_LENGTH)
+    private String lastError;
+
+    // Default constructor
+    public OutboxMessage() {
+    }
+
+    public OutboxMessage(UUID bookingId, String sink, String payload, Instant createdAt) {
+        this.bookingId = bookingId;
+        this.sink = sink;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.nextAttemptAt = createdAt;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public UUID getBookingId() {
+        return bookingId;
+    }
+
+    public String getSink() {
+        return sink;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -2,7 +2,10 @@ package com.travelapp.repository;
 
 import com.travelapp.model.Booking;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -10,7 +13,11 @@ import java.util.UUID;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
-    Optional<Booking> findByBookingReference(String bookingReference);
+    // Read-only, so a lookup outside a transaction is served by a read replica when there is one
+    @Transactional(readOnly = true)
+    @Query("SELECT b FROM Booking b JOIN FETCH b.flight WHERE b.bookingReference = :reference")
+    Optional<Booking> findByBookingReference(@Param("reference") String bookingReference);
 
-    boolean existsByBookingReference(String bookingReference);
+    @Query("SELECT b FROM Booking b JOIN FETCH b.flight WHERE b.idempotencyKey = :key")
+    Optional<Booking> findByIdempotencyKey(@Param("key") String idempotencyKey);
 }
@@ -1,20 +1,88 @@
 package com.travelapp.repository;
 
+import com.travelapp.model.DailyFare;
 import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+/**
+ * Flight queries. Those serving searches and display lookups run in a read-only transaction of
+ * their own, so with read replicas configured they are served by a replica even when the caller
+ * has no transaction; query methods declared here get no transaction by default.
+ */
 @Repository
-public interface FlightRepository extends JpaRepository<Flight, Long> {
+public interface FlightRepository extends JpaRepository<Flight, Long>, JpaSpecificationExecutor<Flight>,
+                                          FlightViewQueries {
 
+    @Transactional(readOnly = true)
     @Query("SELECT f FROM Flight f WHERE f.origin = :origin AND f.destination = :destination " +
-           "AND DATE(f.departureTime) = DATE(:departureDate) ORDER BY f.departureTime")
+           "AND f.departureTime >= :dayStart AND f.departureTime < :nextDayStart " +
+           "AND f.availableSeats >= :passengers ORDER BY f.departureTime")
     List<Flight> searchFlights(@Param("origin") String origin,
                                @Param("destination") String destination,
-                               @Param("departureDate") LocalDateTime departureDate);
+                               @Param("dayStart") LocalDateTime dayStart,
+                               @Param("nextDayStart") LocalDateTime nextDayStart,
+                               @Param("passengers") int passengers);
+
+    /**
+     * Cheapest fare and flight count per departure day for flights departing within
+     * {@code [from, to)} with enough seats: one range scan of idx_flight_search, grouped by day.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.travelapp.model.DailyFare(cast(f.departureTime as LocalDate), min(f.price), count(f)) " +
+           "FROM Flight f WHERE f.origin = :origin AND f.destination = :destination " +
+           "AND f.departureTime >= :from AND f.departureTime < :to AND f.availableSeats >= :passengers " +
+           "GROUP BY cast(f.departureTime as LocalDate) ORDER BY cast(f.departureTime as LocalDate)")
+    List<DailyFare> findDailyFares(@Param("origin") String origin,
+                                   @Param("destination") String destination,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   @Param("passengers") int passengers);
+
+    @Query(FlightView.SELECT + "WHERE f.departureTime >= :from")
+    List<FlightView> findViewsDepartingFrom(@Param("from") LocalDateTime from);
+
+    @Query(FlightView.SELECT + "WHERE f.updatedAt > :since")
+    List<FlightView> findViewsUpdatedAfter(@Param("since") Instant since);
+
+    @Transactional(readOnly = true)
+    @Query(FlightView.SELECT + "WHERE f.id IN :ids")
+    List<FlightView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /** The flight, looked up in the partition of its departure month only. */
+    Optional<Flight> findByIdAndDepartureTime(Long id, LocalDateTime departureTime);
+
+    /**
+     * The flights with the given ids, looked up in the partitions of the given departure
+     * times only.
+     */
+    List<Flight> findByIdInAndDepartureTimeIn(Collection<Long> ids, Collection<LocalDateTime> departureTimes);
+
+    /**
+     * Atomically takes {@code seats} seats from a flight. The single conditional statement
+     * never oversells: it only matches while enough seats remain, and concurrent bookings
+     * hold the row lock for one UPDATE instead of a read-modify-write round trip. The
+     * departure time confines the update to one monthly partition; flight's primary key is
+     * (id, departure_time), so the id alone would be looked up in every partition.
+     *
+     * @return 1 if the seats were taken, 0 if there is no such flight at that departure time
+     *         or it has too few seats
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Flight f SET f.availableSeats = f.availableSeats - :seats, f.updatedAt = INSTANT " +
+           "WHERE f.id = :id AND f.departureTime = :departureTime AND f.availableSeats >= :seats")
+    int decrementAvailableSeats(@Param("id") Long id, @Param("departureTime") LocalDateTime departureTime,
+                                @Param("seats") int seats);
 }
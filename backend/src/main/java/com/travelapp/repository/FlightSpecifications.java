@@ -0,0 +1,65 @@
+package com.travelapp.repository;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Composable predicates for flight searches run through {@link FlightRepository#findBy}.
+ */
+public final class FlightSpecifications {
+
+    private FlightSpecifications() {
+    }
+
+    /**
+     * Flights on a route departing within {@code [dayStart, nextDayStart)}, which
+     * idx_flight_search serves as a range scan.
+     */
+    public static Specification<Flight> departingBetween(String origin, String destination,
+                                                         LocalDateTime dayStart, LocalDateTime nextDayStart) {
+        return (root, query, cb) -> cb.and(
+            cb.equal(root.get("origin"), origin),
+            cb.equal(root.get("destination"), destination),
+            cb.greaterThanOrEqualTo(root.get("departureTime"), dayStart),
+            cb.lessThan(root.get("departureTime"), nextDayStart)
+        );
+    }
+
+    public static Specification<Flight> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Flight> hasSeatsFor(int passengers) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("availableSeats"), passengers);
+    }
+
+    public static Specification<Flight> priceAtMost(Money maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Flight> stopsAtMost(int maxStops) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("stops"), maxStops);
+    }
+
+    public static Specification<Flight> airlineIn(Collection<String> airlines) {
+        return (root, query, cb) -> root.get("airline").in(airlines);
+    }
+
+    /**
+     * Keyset predicate for flights ordered by {@code (property, id)}: everything strictly
+     * after the row with the given sort key and id.
+     */
+    public static <Y extends Comparable<? super Y>> Specification<Flight> after(String property, Y key, Long id) {
+        return (root, query, cb) -> cb.or(
+            cb.greaterThan(root.<Y>get(property), key),
+            cb.and(
+                cb.equal(root.<Y>get(property), key),
+                cb.greaterThan(root.<Long>get("id"), id)
+            )
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.travelapp.repository;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Flight reads that select only the requested columns; implemented by {@link FlightViewQueriesImpl}.
+ */
+public interface FlightViewQueries {
+
+    /**
+     * Flights matching {@code specification} as views holding the given properties and the id.
+     *
+     * @param limit maximum number of flights, or 0 for all of them
+     */
+    List<FlightView> findViews(Specification<Flight> specification, Collection<String> properties, Sort sort, int limit);
+}
@@ -0,0 +1,30 @@
+package com.travelapp.repository;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class FlightViewQueriesImpl implements FlightViewQueries {
+
+    private static final RecordProjection<FlightView> PROJECTION =
+        new RecordProjection<>(FlightView.class, Map.of(), Set.of(), Set.of("id"));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FlightView> findViews(Specification<Flight> specification, Collection<String> properties,
+                                      Sort sort, int limit) {
+        return PROJECTION.find(entityManager, Flight.class, properties, specification, sort, limit);
+    }
+}
@@ -0,0 +1,38 @@
+package com.travelapp.repository;
+
+import com.travelapp.model.OutboxMessage;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Messages due by {@code now}, oldest first, locked for update. A lock timeout of -2 is
+     * Hibernate's SKIP LOCKED: rows another dispatcher is claiming are passed over, not waited on.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM OutboxMessage m WHERE m.nextAttemptAt <= :now ORDER BY m.id")
+    List<OutboxMessage> findDueForUpdate(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE OutboxMessage m SET m.attempts = m.attempts + 1, m.nextAttemptAt = :nextAttemptAt, "
+           + "m.lastError = :error WHERE m.id = :id")
+    void recordFailure(@Param("id") Long id, @Param("error") String error,
+                       @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    @Query("SELECT MIN(m.createdAt) FROM OutboxMessage m")
+    Instant findOldestCreatedAt();
+}
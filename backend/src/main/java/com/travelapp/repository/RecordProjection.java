@@ -0,0 +1,134 @@
+package com.travelapp.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads some attributes of an entity straight into a record, with a criteria query that selects
+ * only those columns and never creates managed entities.
+ *
+ * Record components map to the entity attribute of the same name, or to the attribute path
+ * given in {@code paths} (e.g. {@code flightId -> flight.id}, which reads the foreign key
+ * without a join); {@code unmapped} components aren't read at all. Components that weren't
+ * read are null, or zero for primitives.
+ */
+final class RecordProjection<R extends Record> {
+
+    private final Constructor<R> constructor;
+    private final RecordComponent[] components;
+    private final String[] paths;
+    private final Set<String> required;
+
+    RecordProjection(Class<R> type, Map<String, String> paths, Set<String> unmapped, Set<String> required) {
+        this.components = type.getRecordComponents();
+        this.paths = new String[components.length];
+        for (int i = 0; i < components.length; i++) {
+            String name = components[i].getName();
+            this.paths[i] = unmapped.contains(name) ? null : paths.getOrDefault(name, name);
+        }
+        try {
+            this.constructor = type.getDeclaredConstructor(
+                Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("No canonical constructor on " + type.getName(), e);
+        }
+        this.required = Set.copyOf(required);
+    }
+
+    /**
+     * Reads the given components, plus the required ones, of the entities matching {@code where}.
+     *
+     * @param limit maximum number of rows, or 0 for all of them
+     */
+    <E> List<R> find(EntityManager entityManager, Class<E> entityType, Collection<String> properties,
+                     Specification<E> where, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+
+        List<Integer> selected = new ArrayList<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (int i = 0; i < components.length; i++) {
+            String name = components[i].getName();
+            if (paths[i] != null && (required.contains(name) || properties.contains(name))) {
+                selected.add(i);
+                selections.add(path(root, paths[i]));
+            }
+        }
+        query.multiselect(selections);
+        Predicate predicate = where.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList().stream()
+            .map(tuple -> create(tuple, selected))
+            .toList();
+    }
+
+    private R create(Tuple tuple, List<Integer> selected) {
+        Object[] values = new Object[components.length];
+        for (int i = 0; i < components.length; i++) {
+            values[i] = defaultValue(components[i].getType());
+        }
+        for (int column = 0; column < selected.size(); column++) {
+            values[selected.get(column)] = tuple.get(column);
+        }
+        try {
+            return constructor.newInstance(values);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create " + constructor.getDeclaringClass().getName(), e);
+        }
+    }
+
+    private static Path<?> path(Root<?> root, String attributePath) {
+        Path<?> path = root;
+        for (String attribute : attributePath.split("\\.")) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        return 0;
+    }
+}
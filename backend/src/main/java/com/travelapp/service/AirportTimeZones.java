@@ -0,0 +1,50 @@
+package com.travelapp.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Resolves the local time zone of an airport.
+ *
+ * Flight departure and arrival times are stored as airport-local wall-clock times,
+ * so a departure date always refers to the calendar day at the origin airport.
+ */
+@Component
+public class AirportTimeZones {
+
+    /**
+     * Zone used for airports we have no mapping for. It is the furthest zone behind UTC,
+     * so a date that is still valid anywhere in the world is never rejected as past.
+     */
+    static final ZoneId FALLBACK_ZONE = ZoneId.of("Etc/GMT+12");
+
+    private static final Map<String, ZoneId> ZONES = Map.ofEntries(
+        Map.entry("ATL", ZoneId.of("America/New_York")),
+        Map.entry("BOS", ZoneId.of("America/New_York")),
+        Map.entry("DEN", ZoneId.of("America/Denver")),
+        Map.entry("DFW", ZoneId.of("America/Chicago")),
+        Map.entry("JFK", ZoneId.of("America/New_York")),
+        Map.entry("LAS", ZoneId.of("America/Los_Angeles")),
+        Map.entry("LAX", ZoneId.of("America/Los_Angeles")),
+        Map.entry("MIA", ZoneId.of("America/New_York")),
+        Map.entry("ORD", ZoneId.of("America/Chicago")),
+        Map.entry("PHX", ZoneId.of("America/Phoenix")),
+        Map.entry("SEA", ZoneId.of("America/Los_Angeles")),
+        Map.entry("SFO", ZoneId.of("America/Los_Angeles"))
+    );
+
+    public boolean isKnown(String airportCode) {
+        return ZONES.containsKey(airportCode);
+    }
+
+    public ZoneId zoneOf(String airportCode) {
+        return ZONES.getOrDefault(airportCode, FALLBACK_ZONE);
+    }
+
+    public LocalDate today(String airportCode) {
+        return LocalDate.now(zoneOf(airportCode));
+    }
+}
@@ -0,0 +1,33 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Booking;
+import com.travelapp.model.Flight;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A booking that was made, as delivered to {@link BookingEventSink}s through the outbox.
+ * Carries what a confirmation needs, so sinks don't have to read the booking back.
+ */
+public record BookingConfirmedEvent(
+    UUID bookingId,
+    String bookingReference,
+    Long flightId,
+    String flightNumber,
+    String origin,
+    String destination,
+    LocalDateTime departureTime,
+    String passengerName,
+    String passengerEmail,
+    int seats,
+    LocalDateTime bookingDate
+) {
+
+    static BookingConfirmedEvent of(Booking booking) {
+        Flight flight = booking.getFlight();
+        return new BookingConfirmedEvent(booking.getId(), booking.getBookingReference(), flight.getId(),
+            flight.getFlightNumber(), flight.getOrigin(), flight.getDestination(), flight.getDepartureTime(),
+            booking.getPassengerName(), booking.getPassengerEmail(), booking.getSeats(), booking.getBookingDate());
+    }
+}
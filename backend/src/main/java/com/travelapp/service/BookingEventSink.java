@@ -0,0 +1,18 @@
+package com.travelapp.service;
+
+/**
+ * Receives booking events from the outbox after the booking has committed. Every sink bean
+ * gets each event, independently of the others.
+ *
+ * Delivery is at least once: an event is retried until {@link #accept} returns normally, and
+ * may arrive again after a timeout or a restart, so sinks must tolerate duplicates (the
+ * booking id identifies the event). Events are not ordered.
+ */
+public interface BookingEventSink {
+
+    /** Stored with each pending event; must stay stable while events are pending. */
+    String name();
+
+    /** Handles the event; throwing schedules a retry with backoff. */
+    void accept(BookingConfirmedEvent event) throws Exception;
+}
@@ -0,0 +1,119 @@
+package com.travelapp.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.travelapp.model.Booking;
+import com.travelapp.model.BookingView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Makes {@code createBooking} safe and cheap to retry when the client sends an idempotency key.
+ *
+ * A bounded LRU of recent keys holds each key's booking, or the execution still making it: a
+ * duplicate of a recent request gets the original booking back without a transaction or a query,
+ * and concurrent duplicates wait for the first one instead of racing it. Failed executions drop
+ * out of the LRU, so a retry after a failure tries again. Keys that left the LRU, or were used on
+ * another instance, are caught by the unique key column on booking.
+ *
+ * Runs outside any transaction, so a booking is only handed to duplicates once it has committed.
+ * That also lets it book again, at most {@value #MAX_REFERENCE_RETRIES} times, when a booking
+ * was rejected because its generated reference equals that of a booking made before the
+ * reference sequence; see {@link BookingReferenceGenerator}. Group bookings, which take no
+ * idempotency key, are retried the same way.
+ */
+@Service
+public class BookingIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingIdempotencyService.class);
+
+    static final int MAX_REFERENCE_RETRIES = 3;
+
+    private final BookingService bookingService;
+    private final AsyncCache<String, BookingView> recentKeys;
+
+    public BookingIdempotencyService(BookingService bookingService,
+                                     @Value("${travelapp.booking-idempotency.maximum-size:10000}") long maximumSize,
+                                     @Value("${travelapp.booking-idempotency.ttl:PT1H}") Duration ttl) {
+        this.bookingService = bookingService;
+        this.recentKeys = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .buildAsync();
+    }
+
+    public BookingView createBooking(BookingRequest request, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return BookingView.of(withFreshReferences(() -> bookingService.createBooking(request, null)));
+        }
+
+        CompletableFuture<BookingView> execution = new CompletableFuture<>();
+        CompletableFuture<BookingView> previous = recentKeys.asMap().putIfAbsent(idempotencyKey, execution);
+        if (previous != null) {
+            BookingView booking = await(previous);
+            request.requireMatches(booking);
+            return booking;
+        }
+
+        try {
+            BookingView booking = BookingView.of(book(request, idempotencyKey));
+            execution.complete(booking);
+            return booking;
+        } catch (RuntimeException e) {
+            // The cache removes the key once its execution fails; waiters get the same failure
+            execution.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /** Books a group with {@link BookingService#createBookings}. */
+    public List<BookingOutcome> createBookings(List<BookingRequest> requests) {
+        return withFreshReferences(() -> bookingService.createBookings(requests));
+    }
+
+    private Booking book(BookingRequest request, String idempotencyKey) {
+        try {
+            return withFreshReferences(() -> bookingService.createBooking(request, idempotencyKey));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance committed a booking with this key first; that one is the result.
+            // It is read from the primary, as a replica may not have it yet
+            Booking existing = bookingService.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            request.requireMatches(BookingView.of(existing));
+            return existing;
+        }
+    }
+
+    // Each attempt is a new transaction, and takes the next references from the generator
+    private static <T> T withFreshReferences(Supplier<T> booking) {
+        for (int retries = 0; ; retries++) {
+            try {
+                return booking.get();
+            } catch (DataIntegrityViolationException e) {
+                if (retries == MAX_REFERENCE_RETRIES || !BookingReferenceGenerator.isCollision(e)) {
+                    throw e;
+                }
+                log.warn("Generated booking reference was already taken; booking again with the next one");
+            }
+        }
+    }
+
+    private static BookingView await(CompletableFuture<BookingView> execution) {
+        try {
+            return execution.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
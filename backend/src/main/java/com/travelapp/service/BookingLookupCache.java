@@ -0,0 +1,65 @@
+package com.travelapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.travelapp.model.BookingView;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of single-booking lookups by reference, which customers repeat every time they
+ * refresh their booking.
+ *
+ * Entries hold the booking's own columns only. Its flight's seats change with every booking, so
+ * the flight is resolved anew on each request, usually from the flight snapshot. Nothing in the
+ * application changes a booking once it is made, so the TTL is the only bound on serving a
+ * booking changed outside it. Bookings archived with their flight's month are dropped on the
+ * {@link BookingsArchivedEvent}; the TTL covers a lookup that was already loading then. Unknown
+ * references aren't cached. Hit, miss and eviction counts are published as the {@code cache.*}
+ * meters with {@code cache=bookingLookup}.
+ */
+@Component
+public class BookingLookupCache {
+
+    static final String CACHE_NAME = "bookingLookup";
+
+    private final Cache<String, BookingView> cache;
+
+    public BookingLookupCache(@Value("${travelapp.booking-lookup-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${travelapp.booking-lookup-cache.ttl:PT10M}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * The cached booking, or the loader's. A loaded booking is returned with its flight, if it
+     * has one, and cached without it.
+     */
+    Optional<BookingView> get(String bookingReference, Supplier<Optional<BookingView>> loader) {
+        BookingView cached = cache.getIfPresent(bookingReference);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<BookingView> loaded = loader.get();
+        loaded.ifPresent(booking -> cache.put(bookingReference, booking.withoutFlight()));
+        return loaded;
+    }
+
+    // Published after the archiving transaction has committed, which isn't a Spring transaction
+    @EventListener
+    public void onBookingsArchived(BookingsArchivedEvent event) {
+        cache.invalidateAll(event.bookingReferences());
+    }
+}
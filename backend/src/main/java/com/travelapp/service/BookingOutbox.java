@@ -0,0 +1,98 @@
+package com.travelapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelapp.model.Booking;
+import com.travelapp.model.OutboxMessage;
+import com.travelapp.repository.OutboxMessageRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The outbox table behind booking events: {@link #append} writes them with the booking, and
+ * {@link BookingOutboxDispatcher} claims, completes and reschedules them.
+ */
+@Service
+@Transactional
+public class BookingOutbox {
+
+    private final OutboxMessageRepository repository;
+    private final List<BookingEventSink> sinks;
+    private final ObjectMapper objectMapper;
+
+    public BookingOutbox(OutboxMessageRepository repository, List<BookingEventSink> sinks, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.sinks = List.copyOf(sinks);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Adds one message per sink for each booking. Runs in the caller's transaction, so the
+     * messages commit or roll back with the bookings; the bookings must already have ids.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Collection<Booking> bookings) {
+        if (sinks.isEmpty() || bookings.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<OutboxMessage> messages = new ArrayList<>(bookings.size() * sinks.size());
+        for (Booking booking : bookings) {
+            String payload = write(BookingConfirmedEvent.of(booking));
+            for (BookingEventSink sink : sinks) {
+                messages.add(new OutboxMessage(booking.getId(), sink.name(), payload, now));
+            }
+        }
+        repository.saveAll(messages);
+    }
+
+    /**
+     * Takes up to {@code limit} due messages, skipping any another dispatcher is claiming, and
+     * hides them from other claims for {@code lease}. A message whose dispatcher dies before
+     * completing it becomes due again when the lease runs out.
+     */
+    public List<OutboxMessage> claim(int limit, Duration lease) {
+        Instant now = Instant.now();
+        List<OutboxMessage> due = repository.findDueForUpdate(now, Limit.of(limit));
+        for (OutboxMessage message : due) {
+            message.setNextAttemptAt(now.plus(lease));
+        }
+        return due;
+    }
+
+    public void delivered(Collection<Long> messageIds) {
+        repository.deleteAllByIdInBatch(messageIds);
+    }
+
+    /** Records a failed attempt; the message is due again at {@code nextAttemptAt}. */
+    public void failed(Long messageId, String error, Instant nextAttemptAt) {
+        repository.recordFailure(messageId, error == null || error.length() <= OutboxMessage.MAX_ERROR_LENGTH
+            ? error : error.substring(0, OutboxMessage.MAX_ERROR_LENGTH), nextAttemptAt);
+    }
+
+    /** When the oldest pending message was written, or null if none is pending. */
+    @Transactional(readOnly = true)
+    public Instant oldestPending() {
+        return repository.findOldestCreatedAt();
+    }
+
+    BookingConfirmedEvent read(OutboxMessage message) throws JsonProcessingException {
+        return objectMapper.readValue(message.getPayload(), BookingConfirmedEvent.class);
+    }
+
+    private String write(BookingConfirmedEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize booking event " + event.bookingReference(), e);
+        }
+    }
+}
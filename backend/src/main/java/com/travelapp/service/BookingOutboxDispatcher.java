@@ -0,0 +1,173 @@
+package com.travelapp.service;
+
+import com.travelapp.model.OutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the booking outbox into the {@link BookingEventSink}s, off the request path: a
+ * booking mutation returns once the booking and its outbox rows commit.
+ *
+ * Every {@code poll-interval} the dispatcher claims up to {@code batch-size} due messages (see
+ * {@link BookingOutbox#claim}) and delivers them concurrently, one virtual thread each, so a
+ * slow sink costs a parked virtual thread rather than a pool thread. It keeps claiming while
+ * batches come back full. Delivered messages are deleted. A message that throws or takes
+ * longer than {@code delivery-timeout} is retried after a backoff that starts at
+ * {@code initial-backoff} and doubles per attempt up to {@code max-backoff}.
+ *
+ * Delivery is at least once: a sink that times out may still finish, and one that succeeds
+ * just before a crash is called again once the claim's lease runs out.
+ */
+@Component
+public class BookingOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingOutboxDispatcher.class);
+
+    private final BookingOutbox outbox;
+    private final Map<String, BookingEventSink> sinks;
+    private final int batchSize;
+    private final Duration deliveryTimeout;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    public BookingOutboxDispatcher(BookingOutbox outbox, List<BookingEventSink> sinks,
+                                   @Value("${travelapp.outbox.batch-size:100}") int batchSize,
+                                   @Value("${travelapp.outbox.delivery-timeout:PT30S}") Duration deliveryTimeout,
+                                   @Value("${travelapp.outbox.initial-backoff:PT1S}") Duration initialBackoff,
+                                   @Value("${travelapp.outbox.max-backoff:PT10M}") Duration maxBackoff,
+                                   MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Outbox batch size must be at least 1");
+        }
+        this.outbox = outbox;
+        this.sinks = sinks.stream().collect(Collectors.toMap(BookingEventSink::name, Function.identity()));
+        this.batchSize = batchSize;
+        this.deliveryTimeout = deliveryTimeout;
+        // Long enough that a batch is complete before anyone else may claim it again
+        this.lease = deliveryTimeout.multipliedBy(2);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("travelapp.outbox.lag", oldestPendingMillis, millis -> millis.get() / 1000.0)
+            .description("Age of the oldest undelivered booking event, as of the last dispatch")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${travelapp.outbox.poll-interval:PT1S}",
+               fixedDelayString = "${travelapp.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        int claimed;
+        do {
+            List<OutboxMessage> batch = outbox.claim(batchSize, lease);
+            claimed = batch.size();
+            if (claimed > 0) {
+                deliver(batch);
+            }
+        } while (claimed == batchSize);
+
+        Instant oldest = outbox.oldestPending();
+        oldestPendingMillis.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis()));
+    }
+
+    private void deliver(List<OutboxMessage> batch) {
+        Map<OutboxMessage, Future<?>> deliveries = new LinkedHashMap<>();
+        List<Long> delivered = new ArrayList<>();
+        for (OutboxMessage message : batch) {
+            BookingEventSink sink = sinks.get(message.getSink());
+            if (sink == null) {
+                // The sink was removed from the application; nobody is left to deliver to
+                log.warn("Dropping outbox message {} for unknown sink {}", message.getId(), message.getSink());
+                delivered.add(message.getId());
+                continue;
+            }
+            deliveries.put(message, executor.submit(() -> {
+                sink.accept(outbox.read(message));
+                return null;
+            }));
+        }
+
+        long deadline = System.nanoTime() + deliveryTimeout.toNanos();
+        for (Map.Entry<OutboxMessage, Future<?>> delivery : deliveries.entrySet()) {
+            OutboxMessage message = delivery.getKey();
+            try {
+                delivery.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                delivered.add(message.getId());
+                count(message.getSink(), "delivered");
+                Timer.builder("travelapp.outbox.delivery.lag")
+                    .description("Time from booking commit to delivery, by sink")
+                    .tag("sink", message.getSink())
+                    .register(meterRegistry)
+                    .record(Duration.between(message.getCreatedAt(), Instant.now()));
+            } catch (ExecutionException e) {
+                retryLater(message, e.getCause().toString());
+            } catch (TimeoutException e) {
+                delivery.getValue().cancel(true);
+                retryLater(message, "Timed out after " + deliveryTimeout);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                retryLater(message, "Interrupted");
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outbox.delivered(delivered);
+        }
+    }
+
+    private void retryLater(OutboxMessage message, String error) {
+        Duration backoff = backoff(message.getAttempts() + 1);
+        log.warn("Delivering booking event {} to {} failed (attempt {}), retrying in {}: {}", message.getBookingId(),
+                 message.getSink(), message.getAttempts() + 1, backoff, error);
+        count(message.getSink(), "failed");
+        outbox.failed(message.getId(), error, Instant.now().plus(backoff));
+    }
+
+    /** initial-backoff doubled for each attempt after the first, up to max-backoff. */
+    Duration backoff(int attempt) {
+        int doublings = Math.min(attempt - 1, 30);
+        Duration backoff = initialBackoff.multipliedBy(1L << doublings);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void count(String sink, String outcome) {
+        Counter.builder("travelapp.outbox.deliveries")
+            .description("Booking event deliveries by sink and outcome")
+            .tag("sink", sink)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
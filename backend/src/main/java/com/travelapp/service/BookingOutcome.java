@@ -0,0 +1,23 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Booking;
+
+/**
+ * Result of one booking in a group booking: the booking, or why it wasn't made. The failure is
+ * an {@link IllegalArgumentException} for invalid input and an {@link IllegalStateException}
+ * when the flight can't take the booking, as {@link BookingService#createBooking} would throw.
+ */
+public record BookingOutcome(Booking booking, RuntimeException failure) {
+
+    static BookingOutcome booked(Booking booking) {
+        return new BookingOutcome(booking, null);
+    }
+
+    static BookingOutcome failed(RuntimeException failure) {
+        return new BookingOutcome(null, failure);
+    }
+
+    public boolean isSuccess() {
+        return booking != null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates booking references that are unique by construction, so no database probe
+ * is needed before inserting a booking.
+ *
+ * Each instance reserves blocks of {@value #BLOCK_SIZE} sequence numbers with one
+ * {@code nextval('booking_reference_seq')} and hands them out without locking. Every
+ * sequence number is mapped onto the 36^6 reference space by a keyed Feistel
+ * permutation, so consecutive bookings get unrelated-looking references and nobody can
+ * derive one reference from another without the key. The permutation is a bijection,
+ * which keeps distinct sequence numbers distinct across all backend instances.
+ *
+ * Bookings made before the sequence have random references, which a generated one can
+ * equal. Such a booking fails on {@value Booking#REFERENCE_CONSTRAINT} when it commits
+ * ({@link #isCollision}), and {@link BookingIdempotencyService} books it again with the
+ * next reference.
+ *
+ * The key ({@code travelapp.booking.reference-key}) must be identical on every instance
+ * and must never change once bookings exist; a different key is a different permutation.
+ * It has no default: references are only unguessable while the key is secret, so the
+ * application doesn't start without one.
+ *
+ * {@code travelapp.booking.references} counts references handed out and
+ * {@code travelapp.booking.reference.blocks} times the sequence round trips behind them.
+ */
+@Component
+public class BookingReferenceGenerator {
+
+    static final String REFERENCE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    static final int REFERENCE_LENGTH = 6;
+    static final long REFERENCE_SPACE = 2_176_782_336L; // 36^6
+    static final int BLOCK_SIZE = 100;
+
+    private static final String SEQUENCE_NAME = "booking_reference_seq";
+    private static final int ROUNDS = 4;
+
+    private final LongSupplier blockAllocator;
+    private final Counter references;
+    private final Timer blockAllocations;
+    private final int[] roundKeys = new int[ROUNDS];
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>(Block.EMPTY);
+    // Not synchronized: the refill runs a query, and a virtual thread blocked inside a
+    // synchronized block pins its carrier thread
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    @Autowired
+    public BookingReferenceGenerator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                     @Value("${travelapp.booking.reference-key:}") String key,
+                                     MeterRegistry meterRegistry) {
+        this(nextValue(jdbcTemplate, entityManagerFactory), parseKey(key), meterRegistry);
+    }
+
+    BookingReferenceGenerator(LongSupplier sequence, long key, MeterRegistry meterRegistry) {
+        this.blockAllocator = sequence;
+        this.references = Counter.builder("travelapp.booking.references")
+            .description("Booking references generated")
+            .register(meterRegistry);
+        this.blockAllocations = Timer.builder("travelapp.booking.reference.blocks")
+            .description("Sequence round trips reserving a block of booking references")
+            .register(meterRegistry);
+        long state = key;
+        for (int i = 0; i < ROUNDS; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            roundKeys[i] = (int) mix(state);
+        }
+    }
+
+    public String next() {
+        while (true) {
+            Block block = currentBlock.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                references.increment();
+                return encode(permute(value));
+            }
+            refill(block);
+        }
+    }
+
+    private void refill(Block exhausted) {
+        refillLock.lock();
+        try {
+            if (currentBlock.get() != exhausted) {
+                return;
+            }
+            long start = blockAllocations.record(blockAllocator::getAsLong) * BLOCK_SIZE;
+            if (start + BLOCK_SIZE > REFERENCE_SPACE) {
+                throw new IllegalStateException("Booking reference space exhausted");
+            }
+            currentBlock.set(new Block(start, start + BLOCK_SIZE));
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * Bijection on [0, 36^6): a balanced 32-bit Feistel network, cycle-walked until the
+     * result falls back inside the reference space.
+     */
+    long permute(long value) {
+        long result = value;
+        do {
+            result = feistel(result);
+        } while (result >= REFERENCE_SPACE);
+        return result;
+    }
+
+    private long feistel(long value) {
+        int left = (int) (value >>> 16) & 0xFFFF;
+        int right = (int) value & 0xFFFF;
+        for (int roundKey : roundKeys) {
+            int next = left ^ ((int) mix(right ^ roundKey) & 0xFFFF);
+            left = right;
+            right = next;
+        }
+        return ((long) left << 16) | right;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String encode(long value) {
+        char[] reference = new char[REFERENCE_LENGTH];
+        for (int i = REFERENCE_LENGTH - 1; i >= 0; i--) {
+            reference[i] = REFERENCE_CHARS.charAt((int) (value % REFERENCE_CHARS.length()));
+            value /= REFERENCE_CHARS.length();
+        }
+        return new String(reference);
+    }
+
+    /** Whether {@code e} rejected a booking because its reference was already taken. */
+    static boolean isCollision(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Booking.REFERENCE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static long parseKey(String key) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalStateException(
+                "travelapp.booking.reference-key (BOOKING_REFERENCE_KEY) must be set to a secret 64-bit integer");
+        }
+        try {
+            return Long.parseLong(key.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("travelapp.booking.reference-key must be a 64-bit integer", e);
+        }
+    }
+
+    private static LongSupplier nextValue(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        String sql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices()
+            .getDialect()
+            .getSequenceSupport()
+            .getSequenceNextValString(SEQUENCE_NAME);
+        return () -> jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private static final class Block {
+
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
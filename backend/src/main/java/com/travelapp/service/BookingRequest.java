@@ -0,0 +1,28 @@
+package com.travelapp.service;
+
+import com.travelapp.model.BookingView;
+
+import java.util.Objects;
+
+/**
+ * One booking to make, alone or in a {@link BookingService#createBookings group booking}.
+ */
+public record BookingRequest(Long flightId, String passengerName, String passengerEmail,
+                             String passengerPhone, int seats) {
+
+    /**
+     * Checks that {@code booking}, made earlier under the same idempotency key, holds exactly the
+     * details of this request. A key reused for other details is a client bug that replaying the
+     * earlier booking would hide.
+     */
+    void requireMatches(BookingView booking) {
+        boolean matches = Objects.equals(flightId, booking.flightId())
+            && Objects.equals(passengerName, booking.passengerName())
+            && Objects.equals(passengerEmail, booking.passengerEmail())
+            && Objects.equals(passengerPhone, booking.passengerPhone())
+            && Objects.equals(seats, booking.seats());
+        if (!matches) {
+            throw new IllegalArgumentException("Idempotency key was already used for a different booking");
+        }
+    }
+}
@@ -2,91 +2,283 @@ package com.travelapp.service;
 
 import com.travelapp.model.Booking;
 import com.travelapp.model.BookingStatus;
+import com.travelapp.model.BookingView;
 import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
 import com.travelapp.repository.BookingRepository;
+import com.travelapp.validation.InputRules;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class BookingService {
 
-    private static final String REFERENCE_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int REFERENCE_LENGTH = 6;
-    private static final int MAX_GENERATION_ATTEMPTS = 10;
+    public static final int MAX_GROUP_SIZE = 50;
 
     private final BookingRepository bookingRepository;
     private final FlightService flightService;
-    private final SecureRandom random = new SecureRandom();
+    private final SeatInventoryService seatInventoryService;
+    private final BookingReferenceGenerator referenceGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingOutbox outbox;
+    private final BookingLookupCache lookupCache;
 
-    public BookingService(BookingRepository bookingRepository, FlightService flightService) {
+    public BookingService(BookingRepository bookingRepository, FlightService flightService,
+                          SeatInventoryService seatInventoryService, BookingReferenceGenerator referenceGenerator,
+                          ApplicationEventPublisher eventPublisher, BookingOutbox outbox,
+                          BookingLookupCache lookupCache) {
         this.bookingRepository = bookingRepository;
         this.flightService = flightService;
+        this.seatInventoryService = seatInventoryService;
+        this.referenceGenerator = referenceGenerator;
+        this.eventPublisher = eventPublisher;
+        this.outbox = outbox;
+        this.lookupCache = lookupCache;
     }
 
     public Booking createBooking(Long flightId, String passengerName, String passengerEmail, String passengerPhone) {
-        // Validate flight exists
-        Flight flight = flightService.findById(flightId)
-            .orElseThrow(() -> new IllegalArgumentException("Flight not found: " + flightId));
+        return createBooking(flightId, passengerName, passengerEmail, passengerPhone, 1);
+    }
+
+    /**
+     * Books {@code seats} seats on one flight under a single booking reference, in one transaction.
+     */
+    public Booking createBooking(Long flightId, String passengerName, String passengerEmail,
+                                 String passengerPhone, int seats) {
+        return createBooking(new BookingRequest(flightId, passengerName, passengerEmail, passengerPhone, seats), null);
+    }
 
+    /**
+     * Books a request under an optional idempotency key. If a booking was already made with the
+     * key, that booking is returned and nothing is written; reusing a key for different details
+     * is rejected. Two transactions racing on a new key both book, and the unique index on the
+     * key fails the second at commit with a {@link DataIntegrityViolationException}.
+     * The booking's confirmation is queued in the {@link BookingOutbox} in the same transaction
+     * and delivered after it commits.
+     */
+    public Booking createBooking(BookingRequest request, String idempotencyKey) {
+        Long flightId = request.flightId();
+        int seats = request.seats();
         // Validate passenger details
-        validatePassengerDetails(passengerName, passengerEmail, passengerPhone);
+        validatePassengerDetails(request.passengerName(), request.passengerEmail(), request.passengerPhone());
+        validateSeats(seats);
+        if (idempotencyKey != null) {
+            validateIdempotencyKey(idempotencyKey);
+            Optional<Booking> existing = bookingRepository.findByIdempotencyKey(idempotencyKey);
+            if (existing.isPresent()) {
+                request.requireMatches(BookingView.of(existing.get()));
+                return existing.get();
+            }
+        }
+
+        LocalDateTime departureTime = findDepartureTimes(List.of(flightId)).get(flightId);
+        if (departureTime == null) {
+            throw flightNotFound(flightId);
+        }
+        // Take the seats first; the conditional decrement is what prevents overselling
+        LocalDateTime reservedAt = reserveSeats(flightId, departureTime, seats);
+        if (reservedAt == null) {
+            throw notEnoughSeats(seats);
+        }
+
+        // Loaded after the decrement so the returned booking shows the remaining seats
+        Flight flight = flightService.findById(flightId, reservedAt)
+            .orElseThrow(() -> flightNotFound(flightId));
+        eventPublisher.publishEvent(new FlightSeatsChangedEvent(
+            flight.getId(), flight.getOrigin(), flight.getDestination(), flight.getDepartureTime().toLocalDate()));
+
+        Booking booking = newBooking(flight, request);
+        booking.setIdempotencyKey(idempotencyKey);
+        Booking saved = bookingRepository.save(booking);
+        outbox.append(List.of(saved));
+        return saved;
+    }
 
-        // Check seat availability (simulated - we don't actually decrement)
-        if (flight.getAvailableSeats() <= 0) {
-            throw new IllegalStateException("No seats available on this flight");
+    /**
+     * Books several passengers in one transaction, returning one outcome per request in order.
+     *
+     * Requests with invalid details fail on their own. The rest are grouped by flight and each
+     * flight's seats are taken with a single conditional update, so either every booking on a
+     * flight goes through or none does. Flights are loaded with one query and the bookings are
+     * inserted together, which Hibernate sends as JDBC batches ({@code hibernate.jdbc.batch_size}).
+     */
+    public List<BookingOutcome> createBookings(List<BookingRequest> requests) {
+        if (requests.size() > MAX_GROUP_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_GROUP_SIZE + " bookings can be made at once");
         }
 
-        // Create booking
+        BookingOutcome[] outcomes = new BookingOutcome[requests.size()];
+        Map<Long, Integer> seatsByFlight = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BookingRequest request = requests.get(i);
+            try {
+                validatePassengerDetails(request.passengerName(), request.passengerEmail(), request.passengerPhone());
+                validateSeats(request.seats());
+                if (request.flightId() == null) {
+                    throw new IllegalArgumentException("Flight is required");
+                }
+                seatsByFlight.merge(request.flightId(), request.seats(), Integer::sum);
+            } catch (IllegalArgumentException e) {
+                outcomes[i] = BookingOutcome.failed(e);
+            }
+        }
+
+        Map<Long, LocalDateTime> departureTimes = findDepartureTimes(seatsByFlight.keySet());
+        Map<Long, LocalDateTime> reserved = new LinkedHashMap<>();
+        seatsByFlight.forEach((flightId, seats) -> {
+            LocalDateTime departureTime = departureTimes.get(flightId);
+            LocalDateTime reservedAt = departureTime != null ? reserveSeats(flightId, departureTime, seats) : null;
+            if (reservedAt != null) {
+                reserved.put(flightId, reservedAt);
+            }
+        });
+        // Loaded after the decrements so the bookings show the remaining seats
+        Map<Long, Flight> flights = flightService.findAllById(reserved).stream()
+            .collect(Collectors.toMap(Flight::getId, Function.identity()));
+
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (outcomes[i] != null) {
+                continue;
+            }
+            BookingRequest request = requests.get(i);
+            Flight flight = flights.get(request.flightId());
+            if (!departureTimes.containsKey(request.flightId())) {
+                outcomes[i] = BookingOutcome.failed(flightNotFound(request.flightId()));
+            } else if (flight == null) {
+                outcomes[i] = BookingOutcome.failed(notEnoughSeats(seatsByFlight.get(request.flightId())));
+            } else {
+                Booking booking = newBooking(flight, request);
+                bookings.add(booking);
+                outcomes[i] = BookingOutcome.booked(booking);
+            }
+        }
+
+        for (Flight flight : flights.values()) {
+            eventPublisher.publishEvent(new FlightSeatsChangedEvent(
+                flight.getId(), flight.getOrigin(), flight.getDestination(), flight.getDepartureTime().toLocalDate()));
+        }
+        bookingRepository.saveAll(bookings);
+        outbox.append(bookings);
+        return Arrays.asList(outcomes);
+    }
+
+    /** The booking with {@code bookingReference}, with its flight loaded in the same query. */
+    @Transactional(readOnly = true)
+    public Optional<Booking> findByBookingReference(String bookingReference) {
+        return bookingRepository.findByBookingReference(bookingReference);
+    }
+
+    /**
+     * Looks up one booking through the {@link BookingLookupCache}. A cached booking comes
+     * without its flight; otherwise the booking and its flight are read with one query.
+     */
+    // Doesn't join a transaction of its own, so a cache hit never takes a pooled connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<BookingView> findViewByBookingReference(String bookingReference) {
+        return lookupCache.get(bookingReference,
+            () -> bookingRepository.findByBookingReference(bookingReference).map(BookingView::of));
+    }
+
+    /**
+     * The booking made with {@code idempotencyKey}, with its flight loaded. Read on the primary,
+     * not a read replica: it is called when another request's booking with the key has just
+     * committed, which a replica may not have yet.
+     */
+    @Transactional
+    public Optional<Booking> findByIdempotencyKey(String idempotencyKey) {
+        return bookingRepository.findByIdempotencyKey(idempotencyKey);
+    }
+
+    private Booking newBooking(Flight flight, BookingRequest request) {
         Booking booking = new Booking();
         booking.setFlight(flight);
-        booking.setBookingReference(generateUniqueBookingReference());
-        booking.setPassengerName(passengerName);
-        booking.setPassengerEmail(passengerEmail);
-        booking.setPassengerPhone(passengerPhone);
+        booking.setBookingReference(referenceGenerator.next());
+        booking.setPassengerName(request.passengerName());
+        booking.setPassengerEmail(request.passengerEmail());
+        booking.setPassengerPhone(request.passengerPhone());
+        booking.setSeats(request.seats());
         booking.setBookingDate(LocalDateTime.now());
         booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
 
-        return bookingRepository.save(booking);
+    /**
+     * Departure times of the given flights, which locate their partitions: from the flight
+     * snapshot while it is fresh, and with one query for the rest. Unknown flights are left out.
+     */
+    private Map<Long, LocalDateTime> findDepartureTimes(Collection<Long> flightIds) {
+        return flightService.findViewsById(flightIds).stream()
+            .collect(Collectors.toMap(FlightView::id, FlightView::departureTime));
     }
 
-    @Transactional(readOnly = true)
-    public Optional<Booking> findByBookingReference(String bookingReference) {
-        return bookingRepository.findByBookingReference(bookingReference);
+    /**
+     * Takes the seats on the flight departing at {@code departureTime}, or at its current
+     * departure time if it was rescheduled after that was read.
+     *
+     * @return the departure time the seats were taken at, or null if there weren't enough
+     */
+    private LocalDateTime reserveSeats(Long flightId, LocalDateTime departureTime, int seats) {
+        if (seatInventoryService.reserveSeats(flightId, departureTime, seats)) {
+            return departureTime;
+        }
+        if (flightService.findById(flightId, departureTime).isPresent()) {
+            return null;
+        }
+        // Not in that month's partition any more: look the flight up by id alone, in all of them
+        return flightService.findById(flightId)
+            .map(Flight::getDepartureTime)
+            .filter(current -> seatInventoryService.reserveSeats(flightId, current, seats))
+            .orElse(null);
     }
 
-    private String generateUniqueBookingReference() {
-        for (int attempt = 0; attempt < MAX_GENERATION_ATTEMPTS; attempt++) {
-            String reference = generateBookingReference();
-            if (!bookingRepository.existsByBookingReference(reference)) {
-                return reference;
-            }
+    private IllegalArgumentException flightNotFound(Long flightId) {
+        return new IllegalArgumentException("Flight not found: " + flightId);
+    }
+
+    private IllegalStateException notEnoughSeats(int seats) {
+        return new IllegalStateException(seats == 1
+            ? "No seats available on this flight"
+            : "Not enough seats available on this flight for " + seats + " passengers");
+    }
+
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > Booking.MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                "Idempotency key must be between 1 and " + Booking.MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
         }
-        throw new IllegalStateException("Failed to generate unique booking reference after " +
-                                       MAX_GENERATION_ATTEMPTS + " attempts");
     }
 
-    private String generateBookingReference() {
-        StringBuilder reference = new StringBuilder(REFERENCE_LENGTH);
-        for (int i = 0; i < REFERENCE_LENGTH; i++) {
-            reference.append(REFERENCE_CHARS.charAt(random.nextInt(REFERENCE_CHARS.length())));
+    private void validateSeats(int seats) {
+        if (seats < 1 || seats > Booking.MAX_SEATS) {
+            throw new IllegalArgumentException("Seats must be between 1 and " + Booking.MAX_SEATS);
         }
-        return reference.toString();
     }
 
     private void validatePassengerDetails(String name, String email, String phone) {
-        if (name == null || name.trim().length() < 2 || name.trim().length() > 100) {
+        if (!InputRules.hasTrimmedLength(name, 2, 100)) {
             throw new IllegalArgumentException("Passenger name must be between 2 and 100 characters");
         }
-        if (email == null || !email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (!InputRules.isEmail(email)) {
             throw new IllegalArgumentException("Invalid email address");
         }
-        if (phone == null || !phone.matches("^\\+?[0-9]{10,20}$")) {
-            throw new IllegalArgumentException("Phone number must be 10-20 digits");
+        if (!InputRules.isPhoneNumber(phone)) {
+            throw new IllegalArgumentException("Phone number must be 10-15 digits, optionally prefixed with +, not starting with 0");
         }
     }
 }
@@ -0,0 +1,9 @@
+package com.travelapp.service;
+
+import java.util.List;
+
+/**
+ * Published once the bookings on an archived month's flights have moved to {@code archive.booking}
+ * and can no longer be looked up.
+ */
+public record BookingsArchivedEvent(List<String> bookingReferences) {}
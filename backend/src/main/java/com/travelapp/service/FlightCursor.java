@@ -0,0 +1,65 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightSort;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+import com.travelapp.repository.FlightSpecifications;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the sort key and id of the last flight on a page.
+ * The next page starts strictly after {@code (key, id)} in the {@code ORDER BY key, id} order,
+ * so paging costs the same on page 50 as on page 1.
+ */
+record FlightCursor(FlightSort sort, String key, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    static FlightCursor of(FlightSort sort, FlightView flight) {
+        String key = switch (sort) {
+            case DEPARTURE_TIME -> flight.departureTime().toString();
+            case PRICE -> Long.toString(flight.price().minorUnits());
+            case DURATION -> Integer.toString(flight.durationMinutes());
+        };
+        return new FlightCursor(sort, key, flight.id());
+    }
+
+    static FlightCursor decode(String cursor, FlightSort expectedSort) {
+        FlightCursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            decoded = new FlightCursor(FlightSort.valueOf(raw.substring(0, first)),
+                                       raw.substring(first + 1, last),
+                                       Long.valueOf(raw.substring(last + 1)));
+            // Parses the key, so a tampered cursor fails here rather than inside the query
+            decoded.toSpecification();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        if (decoded.sort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        return decoded;
+    }
+
+    String encode() {
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Specification<Flight> toSpecification() {
+        return switch (sort) {
+            case DEPARTURE_TIME -> FlightSpecifications.after(sort.getProperty(), LocalDateTime.parse(key), id);
+            case PRICE -> FlightSpecifications.after(
+                sort.getProperty(), Money.ofMinor(Long.parseLong(key), Flight.CURRENCY), id);
+            case DURATION -> FlightSpecifications.after(sort.getProperty(), Integer.valueOf(key), id);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package com.travelapp.service;
+
+import java.util.List;
+
+/**
+ * Optional narrowing of a flight search. Null fields don't filter.
+ */
+public record FlightFilter(
+    Double maxPrice,
+    Integer maxStops,
+    List<String> airlines
+) {}
@@ -0,0 +1,16 @@
+package com.travelapp.service;
+
+import com.travelapp.model.FlightSort;
+import com.travelapp.model.FlightView;
+
+import java.util.List;
+
+public record FlightPage(
+    List<FlightView> flights,
+    FlightSort sort,
+    boolean hasNextPage
+) {
+    public String cursorOf(FlightView flight) {
+        return FlightCursor.of(sort, flight).encode();
+    }
+}
@@ -0,0 +1,213 @@
+package com.travelapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code flight} ahead of the schedule and moves old ones out.
+ * PostgreSQL only; does nothing while {@code flight} is a plain table (as under H2).
+ *
+ * Each run creates the partitions for the current month and the next {@code months-ahead},
+ * so schedules and imports always have a partition to land in. Once a month is more than
+ * {@code retention-months} in the past, its bookings move to {@code archive.booking} and its
+ * partition is detached into the {@code archive} schema, which costs a catalog update rather
+ * than a bulk delete. A retention of 0 keeps every month. A {@link BookingsArchivedEvent} then
+ * names the bookings that moved, which are read just before the move.
+ *
+ * Every partition change runs in its own short transaction and gives up after
+ * {@code lock-timeout} instead of queueing behind long queries, since a queued
+ * {@code ACCESS EXCLUSIVE} lock blocks every search behind it. A change that fails is logged
+ * and tried again on the next run.
+ */
+@Service
+public class FlightPartitionMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightPartitionMaintenance.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("flight_(\\d{4})_(\\d{2})");
+
+    private static final String IS_PARTITIONED =
+        "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('flight'))";
+
+    private static final String LIST_PARTITIONS = """
+        SELECT child.relname
+        FROM pg_inherits
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        WHERE pg_inherits.inhparent = to_regclass('flight')
+        """;
+
+    private static final String LIST_BOOKINGS =
+        "SELECT booking_reference FROM booking WHERE flight_departure_time >= ? AND flight_departure_time < ?";
+
+    private final DataSource dataSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final String lockTimeout;
+    private final Counter createdPartitions;
+    private final Counter archivedPartitions;
+    private final Counter failures;
+
+    public FlightPartitionMaintenance(DataSource dataSource, ApplicationEventPublisher eventPublisher,
+                                      @Value("${travelapp.flight-partitions.months-ahead:12}") int monthsAhead,
+                                      @Value("${travelapp.flight-partitions.retention-months:12}") int retentionMonths,
+                                      @Value("${travelapp.flight-partitions.lock-timeout:PT5S}") Duration lockTimeout,
+                                      MeterRegistry meterRegistry) {
+        if (monthsAhead < 0 || retentionMonths < 0) {
+            throw new IllegalArgumentException(
+                "Flight partition months-ahead and retention-months must not be negative");
+        }
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.lockTimeout = lockTimeout.toMillis() + "ms";
+        this.createdPartitions = partitionCounter("created", meterRegistry);
+        this.archivedPartitions = partitionCounter("archived", meterRegistry);
+        this.failures = Counter.builder("travelapp.flight.partition.failures")
+            .description("Partition changes that failed and will be retried on the next run")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${travelapp.flight-partitions.maintenance-interval:PT6H}")
+    public void maintain() {
+        maintain(YearMonth.now(ZoneOffset.UTC));
+    }
+
+    /** Brings the partitions in line with {@code currentMonth}. */
+    public void maintain(YearMonth currentMonth) {
+        List<YearMonth> attached;
+        try (Connection connection = dataSource.getConnection()) {
+            if (!isPartitioned(connection)) {
+                return;
+            }
+            attached = attachedMonths(connection);
+        } catch (SQLException e) {
+            log.warn("Could not list flight partitions", e);
+            failures.increment();
+            return;
+        }
+
+        for (int ahead = 0; ahead <= monthsAhead; ahead++) {
+            YearMonth month = currentMonth.plusMonths(ahead);
+            if (!attached.contains(month) && change("create_flight_partition", month)) {
+                createdPartitions.increment();
+                log.info("Created flight partition for {}", month);
+            }
+        }
+        if (retentionMonths == 0) {
+            return;
+        }
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        for (YearMonth month : attached) {
+            if (month.isBefore(oldestKept)) {
+                archive(month);
+            }
+        }
+    }
+
+    private void archive(YearMonth month) {
+        List<String> bookingReferences = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement query = connection.prepareStatement(LIST_BOOKINGS)) {
+            query.setTimestamp(1, Timestamp.valueOf(month.atDay(1).atStartOfDay()));
+            query.setTimestamp(2, Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+            try (ResultSet result = query.executeQuery()) {
+                while (result.next()) {
+                    bookingReferences.add(result.getString(1));
+                }
+            }
+        } catch (SQLException e) {
+            log.warn("Could not list the bookings of {}; will retry on the next run", month, e);
+            failures.increment();
+            return;
+        }
+        if (change("archive_flight_partition", month)) {
+            archivedPartitions.increment();
+            eventPublisher.publishEvent(new BookingsArchivedEvent(bookingReferences));
+            log.info("Archived flight partition for {} with {} bookings", month, bookingReferences.size());
+        }
+    }
+
+    private static boolean isPartitioned(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return false;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(IS_PARTITIONED)) {
+            return result.next() && result.getBoolean(1);
+        }
+    }
+
+    private static List<YearMonth> attachedMonths(Connection connection) throws SQLException {
+        List<YearMonth> months = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(LIST_PARTITIONS)) {
+            while (result.next()) {
+                Matcher name = PARTITION_NAME.matcher(result.getString(1));
+                if (name.matches()) {
+                    months.add(YearMonth.of(Integer.parseInt(name.group(1)), Integer.parseInt(name.group(2))));
+                }
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /** Calls one of the partition functions from migration 009; true if it changed anything. */
+    private boolean change(String function, YearMonth month) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement timeout = connection.prepareStatement("SELECT set_config('lock_timeout', ?, true)");
+                 PreparedStatement call = connection.prepareStatement("SELECT " + function + "(?)")) {
+                timeout.setString(1, lockTimeout);
+                timeout.execute();
+                call.setDate(1, Date.valueOf(month.atDay(1)));
+                boolean changed;
+                try (ResultSet result = call.executeQuery()) {
+                    changed = result.next() && result.getBoolean(1);
+                }
+                connection.commit();
+                return changed;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            log.warn("{} failed for {}; will retry on the next run", function, month, e);
+            failures.increment();
+            return false;
+        }
+    }
+
+    private static Counter partitionCounter(String action, MeterRegistry meterRegistry) {
+        return Counter.builder("travelapp.flight.partitions")
+            .description("Monthly flight partitions created or archived")
+            .tag("action", action)
+            .register(meterRegistry);
+    }
+}
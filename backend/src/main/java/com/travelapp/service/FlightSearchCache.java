@@ -0,0 +1,108 @@
+package com.travelapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of flight search results.
+ *
+ * Entries are keyed on the normalized search and evicted by size and TTL. When a booking
+ * commits, every cached search for that flight's route and day is dropped, so seat counts
+ * are never served stale beyond a search that was already loading at commit time; the TTL
+ * bounds that remaining window. Hit, miss and eviction counts are published as the
+ * {@code cache.*} meters with {@code cache=flightSearch}.
+ *
+ * Misses are loaded single-flight: identical searches arriving while one is loading wait up to
+ * {@code coalesce-timeout} for its result or failure instead of running the same query again.
+ * {@code travelapp.flight.search.queries} counts them by {@code execution} ({@code executed} or
+ * {@code coalesced}), and {@code travelapp.flight.search.coalesce.timeouts} the waits that gave up.
+ */
+@Component
+public class FlightSearchCache {
+
+    static final String CACHE_NAME = "flightSearch";
+
+    private final Cache<SearchKey, Object> cache;
+    private final SingleFlight<SearchKey, Object> loads;
+
+    public FlightSearchCache(@Value("${travelapp.search-cache.maximum-size:10000}") long maximumSize,
+                             @Value("${travelapp.search-cache.ttl:PT30S}") Duration ttl,
+                             @Value("${travelapp.search-cache.coalesce-timeout:PT5S}") Duration coalesceTimeout,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.loads = new SingleFlight<>(coalesceTimeout,
+            queryCounter("executed", meterRegistry),
+            queryCounter("coalesced", meterRegistry),
+            Counter.builder("travelapp.flight.search.coalesce.timeouts")
+                .description("Flight searches that gave up waiting for an identical search in progress")
+                .register(meterRegistry));
+    }
+
+    /**
+     * The cached result for {@code key}, or the loader's result once it has run. Loading
+     * outside the cache's compute lock keeps a slow query from blocking unrelated keys and
+     * lets waiting callers time out.
+     */
+    @SuppressWarnings("unchecked")
+    <T> T get(SearchKey key, Supplier<T> loader) {
+        Object cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+        return (T) loads.execute(key, () -> {
+            T loaded = loader.get();
+            cache.put(key, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * Drops all cached searches for one route and departure day, whatever their
+     * passenger count or paging.
+     */
+    public void evictRouteDay(String origin, String destination, LocalDate departureDate) {
+        // A scan of at most maximum-size keys; cheap next to the booking that triggers it
+        cache.asMap().keySet().removeIf(key -> key.isRouteDay(origin, destination, departureDate));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onSeatsChanged(FlightSeatsChangedEvent event) {
+        evictRouteDay(event.origin(), event.destination(), event.departureDate());
+    }
+
+    private static Counter queryCounter(String execution, MeterRegistry meterRegistry) {
+        return Counter.builder("travelapp.flight.search.queries")
+            .description("Flight search cache misses, by whether they ran the query or shared one in progress")
+            .tag("execution", execution)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Normalized search. {@code page} holds the sort, filter and cursor of a paged
+     * search, or the properties read by the plain list search.
+     */
+    record SearchKey(String origin, String destination, LocalDate departureDate, int passengers, Object page) {
+
+        boolean isRouteDay(String origin, String destination, LocalDate departureDate) {
+            return this.origin.equals(origin)
+                && this.destination.equals(destination)
+                && this.departureDate.equals(departureDate);
+        }
+    }
+}
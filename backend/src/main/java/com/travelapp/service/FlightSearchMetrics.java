@@ -0,0 +1,83 @@
+package com.travelapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Meters for flight searches.
+ *
+ * {@code travelapp.flight.search} is a latency histogram tagged by query and outcome only;
+ * {@code travelapp.flight.search.requests} counts searches per route. Keeping the route off the
+ * histogram keeps the series count small. Routes between airports we have no time zone for
+ * are reported as {@code other}, so arbitrary input can't create new series. Meters are
+ * registered once per series and looked up afterwards.
+ */
+@Component
+public class FlightSearchMetrics {
+
+    static final String SEARCH_TIMER = "travelapp.flight.search";
+    static final String SEARCH_COUNTER = "travelapp.flight.search.requests";
+    static final String OTHER_ROUTE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final AirportTimeZones airportTimeZones;
+    private final ConcurrentMap<SeriesKey, Counter> searchCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SeriesKey, Timer> searchTimers = new ConcurrentHashMap<>();
+
+    public FlightSearchMetrics(MeterRegistry meterRegistry, AirportTimeZones airportTimeZones) {
+        this.meterRegistry = meterRegistry;
+        this.airportTimeZones = airportTimeZones;
+    }
+
+    public <T> T record(String query, String origin, String destination, Supplier<T> search) {
+        searchCounters.computeIfAbsent(new SeriesKey(query, route(origin, destination)), key ->
+            Counter.builder(SEARCH_COUNTER)
+                .description("Flight searches by route")
+                .tag("query", key.query())
+                .tag("route", key.tag())
+                .register(meterRegistry)
+        ).increment();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = search.get();
+            outcome = "success";
+            return result;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            sample.stop(searchTimers.computeIfAbsent(new SeriesKey(query, outcome), key ->
+                Timer.builder(SEARCH_TIMER)
+                    .description("Flight search latency, including cache hits")
+                    .tag("query", key.query())
+                    .tag("outcome", key.tag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)));
+        }
+    }
+
+    String route(String origin, String destination) {
+        if (origin == null || destination == null) {
+            return OTHER_ROUTE;
+        }
+        String originCode = origin.toUpperCase(Locale.ROOT);
+        String destinationCode = destination.toUpperCase(Locale.ROOT);
+        if (!airportTimeZones.isKnown(originCode) || !airportTimeZones.isKnown(destinationCode)) {
+            return OTHER_ROUTE;
+        }
+        return originCode + "-" + destinationCode;
+    }
+
+    /** A query and its route or outcome tag. */
+    private record SeriesKey(String query, String tag) {
+    }
+}
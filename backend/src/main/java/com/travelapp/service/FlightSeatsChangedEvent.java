@@ -0,0 +1,13 @@
+package com.travelapp.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a booking changes the available seats of a flight.
+ */
+public record FlightSeatsChangedEvent(
+    Long flightId,
+    String origin,
+    String destination,
+    LocalDate departureDate
+) {}
@@ -1,42 +1,253 @@
 package com.travelapp.service;
 
+import com.travelapp.model.Booking;
+import com.travelapp.model.DailyFare;
 import com.travelapp.model.Flight;
+import com.travelapp.model.FlightSort;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
 import com.travelapp.repository.FlightRepository;
+import com.travelapp.repository.FlightSpecifications;
+import com.travelapp.validation.InputRules;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional(readOnly = true)
 public class FlightService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_CONNECTIONS = 2;
+    public static final int MAX_ITINERARIES = 50;
+    public static final int MAX_CALENDAR_DAYS = 90;
+
+    // sortFlightsByPrice packs a list index into the low 24 bits and the price in cents above it
+    private static final int PACKED_INDEX_BITS = 24;
+    private static final long PACKED_INDEX_MASK = (1L << PACKED_INDEX_BITS) - 1;
+    private static final long MAX_PACKED_PRICE = (1L << (Long.SIZE - 1 - PACKED_INDEX_BITS)) - 1;
+
     private final FlightRepository flightRepository;
+    private final AirportTimeZones airportTimeZones;
+    private final FlightSearchCache searchCache;
+    private final RouteGraphService routeGraphService;
+    private final FlightSearchMetrics searchMetrics;
+    private final FlightSnapshotService flightSnapshot;
 
-    public FlightService(FlightRepository flightRepository) {
+    public FlightService(FlightRepository flightRepository, AirportTimeZones airportTimeZones,
+                         FlightSearchCache searchCache, RouteGraphService routeGraphService,
+                         FlightSearchMetrics searchMetrics, FlightSnapshotService flightSnapshot) {
         this.flightRepository = flightRepository;
+        this.airportTimeZones = airportTimeZones;
+        this.searchCache = searchCache;
+        this.routeGraphService = routeGraphService;
+        this.searchMetrics = searchMetrics;
+        this.flightSnapshot = flightSnapshot;
+    }
+
+    /**
+     * Flights on a route and day with enough seats, by departure time. Served whole from the
+     * snapshot while it is fresh; otherwise only the given {@link FlightView} properties are read,
+     * along with the id.
+     */
+    // Searches don't join a transaction of their own: snapshot reads and cache hits then
+    // never take a pooled connection, and a miss runs in the repository's read-only transaction.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FlightView> searchFlights(String origin, String destination, String departureDate, int passengers,
+                                          Set<String> properties) {
+        return searchMetrics.record("searchFlights", origin, destination,
+            () -> findFlights(origin, destination, departureDate, passengers, properties));
+    }
+
+    /**
+     * Returns one page of a search, filtered, ordered and limited in the database.
+     * Pages are addressed by keyset cursors, so memory per request scales with
+     * {@code first} rather than with the number of flights on the route. Only the given
+     * {@link FlightView} properties are read, along with the id and sort key.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public FlightPage searchFlightPage(String origin, String destination, String departureDate, int passengers,
+                                       FlightFilter filter, FlightSort sort, int first, String after,
+                                       Set<String> properties) {
+        return searchMetrics.record("flights", origin, destination,
+            () -> findFlightPage(origin, destination, departureDate, passengers, filter, sort, first, after,
+                                 properties));
+    }
+
+    /**
+     * Finds direct and connecting itineraries from the in-memory route graph, without a
+     * database query. Connecting flights must leave between the minimum and maximum
+     * connection time after the previous one lands.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Itinerary> searchItineraries(String origin, String destination, String departureDate,
+                                             int passengers, int maxConnections, int first) {
+        return searchMetrics.record("searchItineraries", origin, destination,
+            () -> findItineraries(origin, destination, departureDate, passengers, maxConnections, first));
+    }
+
+    /**
+     * Cheapest fare per departure day from {@code from} to {@code to} inclusive, in one
+     * snapshot pass or one grouped query instead of a search per day.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<DailyFare> fareCalendar(String origin, String destination, String from, String to, int passengers) {
+        return searchMetrics.record("fareCalendar", origin, destination,
+            () -> findFareCalendar(origin, destination, from, to, passengers));
+    }
+
+    private List<FlightView> findFlights(String origin, String destination, String departureDate, int passengers,
+                                         Set<String> properties) {
+        validateAirportCode(origin);
+        validateAirportCode(destination);
+        validatePassengers(passengers);
+
+        String originCode = origin.toUpperCase();
+        String destinationCode = destination.toUpperCase();
+        LocalDate date = parseDate(departureDate, originCode);
+
+        if (flightSnapshot.isFresh()) {
+            return flightSnapshot.search(originCode, destinationCode, date, passengers);
+        }
+        Set<String> columns = Set.copyOf(properties);
+        FlightSearchCache.SearchKey key =
+            new FlightSearchCache.SearchKey(originCode, destinationCode, date, passengers, columns);
+        // Departure times are origin-local, so the day is the half-open range
+        // [midnight, next midnight) which idx_flight_search can serve as a range scan.
+        Specification<Flight> query = FlightSpecifications.departingBetween(
+                originCode, destinationCode, date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+            .and(FlightSpecifications.hasSeatsFor(passengers));
+        return searchCache.get(key, () -> List.copyOf(
+            flightRepository.findViews(query, columns, Sort.by("departureTime", "id"), 0)));
+    }
+
+    private FlightPage findFlightPage(String origin, String destination, String departureDate, int passengers,
+                                      FlightFilter filter, FlightSort sort, int first, String after,
+                                      Set<String> properties) {
+        validateAirportCode(origin);
+        validateAirportCode(destination);
+        validatePassengers(passengers);
+        validatePageSize(first);
+
+        String originCode = origin.toUpperCase();
+        String destinationCode = destination.toUpperCase();
+        LocalDate date = parseDate(departureDate, originCode);
+
+        Specification<Flight> specification = FlightSpecifications.departingBetween(
+                originCode, destinationCode, date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+            .and(FlightSpecifications.hasSeatsFor(passengers))
+            .and(filterSpecification(filter));
+        if (after != null) {
+            specification = specification.and(FlightCursor.decode(after, sort).toSpecification());
+        }
+        Specification<Flight> query = specification;
+
+        Set<String> columns = new HashSet<>(properties);
+        columns.add(sort.getProperty());
+        FlightSearchCache.SearchKey key = new FlightSearchCache.SearchKey(
+            originCode, destinationCode, date, passengers, new PageKey(filter, sort, first, after, Set.copyOf(columns)));
+        return searchCache.get(key, () -> {
+            // Fetch one extra row to learn whether another page follows
+            List<FlightView> flights = flightRepository.findViews(
+                query, columns, Sort.by(sort.getProperty(), "id"), first + 1);
+            boolean hasNextPage = flights.size() > first;
+            return new FlightPage(List.copyOf(hasNextPage ? flights.subList(0, first) : flights), sort, hasNextPage);
+        });
     }
 
-    public List<Flight> searchFlights(String origin, String destination, String departureDate) {
+    private List<DailyFare> findFareCalendar(String origin, String destination, String from, String to,
+                                             int passengers) {
         validateAirportCode(origin);
         validateAirportCode(destination);
+        validatePassengers(passengers);
+
+        String originCode = origin.toUpperCase();
+        String destinationCode = destination.toUpperCase();
+        LocalDate firstDay = parseDate(from, originCode);
+        LocalDate lastDay = parseDate(to, originCode);
+        if (lastDay.isBefore(firstDay)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(firstDay, lastDay) >= MAX_CALENDAR_DAYS) {
+            throw new IllegalArgumentException("Date range must be at most " + MAX_CALENDAR_DAYS + " days");
+        }
 
-        LocalDateTime date = parseDate(departureDate);
-        return flightRepository.searchFlights(
-            origin.toUpperCase(),
-            destination.toUpperCase(),
-            date
+        if (flightSnapshot.isFresh()) {
+            return flightSnapshot.fareCalendar(originCode, destinationCode, firstDay, lastDay, passengers);
+        }
+        return flightRepository.findDailyFares(
+            originCode,
+            destinationCode,
+            firstDay.atStartOfDay(),
+            lastDay.plusDays(1).atStartOfDay(),
+            passengers
         );
     }
 
+    private List<Itinerary> findItineraries(String origin, String destination, String departureDate,
+                                            int passengers, int maxConnections, int first) {
+        validateAirportCode(origin);
+        validateAirportCode(destination);
+        validatePassengers(passengers);
+        if (maxConnections < 0 || maxConnections > MAX_CONNECTIONS) {
+            throw new IllegalArgumentException("Connections must be between 0 and " + MAX_CONNECTIONS);
+        }
+        if (first < 1 || first > MAX_ITINERARIES) {
+            throw new IllegalArgumentException("Itinerary count must be between 1 and " + MAX_ITINERARIES);
+        }
+
+        String originCode = origin.toUpperCase();
+        LocalDate date = parseDate(departureDate, originCode);
+        return routeGraphService.search(originCode, destination.toUpperCase(), date, passengers, maxConnections, first);
+    }
+
+    /**
+     * Sorts by price, keeping the given order among equal prices. Each price in cents is packed
+     * with its position into one {@code long}, so the sort runs over a primitive array and never
+     * touches the flights; lists too large to pack fall back to a comparator.
+     */
     public List<Flight> sortFlightsByPrice(List<Flight> flights) {
+        int count = flights.size();
+        if (count > PACKED_INDEX_MASK) {
+            return sortByPriceComparator(flights);
+        }
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            long cents = flights.get(i).getPrice().minorUnits();
+            if (cents < 0 || cents > MAX_PACKED_PRICE) {
+                return sortByPriceComparator(flights);
+            }
+            keys[i] = cents << PACKED_INDEX_BITS | i;
+        }
+        Arrays.sort(keys);
+        Flight[] sorted = new Flight[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = flights.get((int) (keys[i] & PACKED_INDEX_MASK));
+        }
+        return Collections.unmodifiableList(Arrays.asList(sorted));
+    }
+
+    private static List<Flight> sortByPriceComparator(List<Flight> flights) {
         return flights.stream()
-            .sorted(Comparator.comparing(Flight::getPrice))
+            .sorted(Comparator.comparingLong(flight -> flight.getPrice().minorUnits()))
             .toList();
     }
 
@@ -56,19 +267,114 @@ public class FlightService {
         return flightRepository.findById(id);
     }
 
+    /**
+     * Looks a flight up for display: whole from the snapshot while it is fresh, otherwise (and
+     * for flights the snapshot doesn't hold) from the database, reading only the given
+     * {@link FlightView} properties and the id.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<FlightView> findViewById(Long id, Set<String> properties) {
+        if (flightSnapshot.isFresh()) {
+            Optional<FlightView> flight = flightSnapshot.findById(id);
+            if (flight.isPresent()) {
+                return flight;
+            }
+        }
+        return flightRepository.findViews(FlightSpecifications.hasId(id), properties, Sort.unsorted(), 1)
+            .stream().findFirst();
+    }
+
+    /**
+     * Looks several flights up for display, from the snapshot while it is fresh and with
+     * one query for the rest.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<FlightView> findViewsById(Collection<Long> ids) {
+        List<FlightView> flights = new ArrayList<>(ids.size());
+        Set<Long> missing = new HashSet<>();
+        boolean fresh = flightSnapshot.isFresh();
+        for (Long id : ids) {
+            Optional<FlightView> flight = fresh ? flightSnapshot.findById(id) : Optional.empty();
+            if (flight.isPresent()) {
+                flights.add(flight.get());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            flights.addAll(flightRepository.findViewsByIdIn(missing));
+        }
+        return flights;
+    }
+
+    /** The flight departing at {@code departureTime}, read from that month's partition only. */
+    public Optional<Flight> findById(Long id, LocalDateTime departureTime) {
+        return flightRepository.findByIdAndDepartureTime(id, departureTime);
+    }
+
+    /**
+     * The flights with the given ids and departure times, read from those months' partitions
+     * only.
+     */
+    public List<Flight> findAllById(Map<Long, LocalDateTime> departureTimes) {
+        if (departureTimes.isEmpty()) {
+            return List.of();
+        }
+        return flightRepository.findByIdInAndDepartureTimeIn(departureTimes.keySet(), departureTimes.values());
+    }
+
     private void validateAirportCode(String code) {
-        if (code == null || !code.matches("^[A-Za-z]{3}$")) {
+        if (!InputRules.isAirportCodeIgnoreCase(code)) {
             throw new IllegalArgumentException("Airport code must be exactly 3 letters: " + code);
         }
     }
 
-    private LocalDateTime parseDate(String dateString) {
+    private record PageKey(FlightFilter filter, FlightSort sort, int first, String after, Set<String> columns) {
+    }
+
+    private Specification<Flight> filterSpecification(FlightFilter filter) {
+        Specification<Flight> specification = Specification.where(null);
+        if (filter == null) {
+            return specification;
+        }
+        if (filter.maxPrice() != null) {
+            if (filter.maxPrice() <= 0) {
+                throw new IllegalArgumentException("Maximum price must be greater than zero");
+            }
+            specification = specification.and(FlightSpecifications.priceAtMost(
+                Money.floor(BigDecimal.valueOf(filter.maxPrice()), Flight.CURRENCY)));
+        }
+        if (filter.maxStops() != null) {
+            if (filter.maxStops() < 0) {
+                throw new IllegalArgumentException("Maximum stops cannot be negative");
+            }
+            specification = specification.and(FlightSpecifications.stopsAtMost(filter.maxStops()));
+        }
+        if (filter.airlines() != null && !filter.airlines().isEmpty()) {
+            specification = specification.and(FlightSpecifications.airlineIn(filter.airlines()));
+        }
+        return specification;
+    }
+
+    private void validatePageSize(int first) {
+        if (first < 1 || first > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private void validatePassengers(int passengers) {
+        if (passengers < 1 || passengers > Booking.MAX_SEATS) {
+            throw new IllegalArgumentException("Passengers must be between 1 and " + Booking.MAX_SEATS);
+        }
+    }
+
+    private LocalDate parseDate(String dateString, String originCode) {
         try {
             LocalDate date = LocalDate.parse(dateString, DateTimeFormatter.ISO_LOCAL_DATE);
-            if (date.isBefore(LocalDate.now())) {
+            if (date.isBefore(airportTimeZones.today(originCode))) {
                 throw new IllegalArgumentException("Departure date must be today or in the future");
             }
-            return date.atStartOfDay();
+            return date;
         } catch (IllegalArgumentException e) {
             throw e;
         } catch (Exception e) {
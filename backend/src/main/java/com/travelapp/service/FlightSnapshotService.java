@@ -0,0 +1,241 @@
+package com.travelapp.service;
+
+import com.travelapp.model.DailyFare;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+import com.travelapp.repository.FlightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-only, in-memory copy of upcoming flights, indexed by id and by route and departure day.
+ *
+ * Flights are held as {@link FlightView} records. Every {@code travelapp.flight-snapshot.refresh-interval}
+ * the snapshot asks the database for rows whose {@code updated_at} is newer than the newest one
+ * it has seen, and applies them in place. Rows deleted outside the application and flights that
+ * have departed are only dropped by the full reload every {@code full-reload-interval}.
+ *
+ * Readers check {@link #isFresh()} first: once the last successful refresh is older than
+ * {@code travelapp.flight-snapshot.max-staleness}, for instance because the database is
+ * unreachable, they go to the database instead. PT0S serves every read from the database.
+ */
+@Service
+public class FlightSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightSnapshotService.class);
+
+    /**
+     * How far behind the newest {@code updated_at} seen each poll starts. On PostgreSQL the column
+     * holds the writing transaction's start time, so a write can become visible after newer ones;
+     * it is still picked up as long as its transaction took less than this to commit.
+     */
+    static final Duration COMMIT_LAG = Duration.ofSeconds(10);
+
+    private static final Comparator<FlightView> DEPARTURE_ORDER =
+        Comparator.comparing(FlightView::departureTime).thenComparingLong(FlightView::id);
+
+    private final FlightRepository flightRepository;
+    private final long maxStalenessNanos;
+    private final long fullReloadIntervalNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Index index;
+    private volatile long refreshedAtNanos;
+    // Guarded by refreshLock
+    private long reloadedAtNanos;
+
+    public FlightSnapshotService(FlightRepository flightRepository,
+                                 @Value("${travelapp.flight-snapshot.max-staleness:PT30S}") Duration maxStaleness,
+                                 @Value("${travelapp.flight-snapshot.full-reload-interval:PT10M}") Duration fullReloadInterval) {
+        this.flightRepository = flightRepository;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+        this.fullReloadIntervalNanos = fullReloadInterval.toNanos();
+    }
+
+    /** Whether the snapshot was refreshed within the staleness bound and may be read. */
+    public boolean isFresh() {
+        return index != null && System.nanoTime() - refreshedAtNanos <= maxStalenessNanos;
+    }
+
+    /**
+     * Flights from {@code origin} to {@code destination} departing on {@code date} (origin-local)
+     * with at least {@code passengers} seats left, by departure time.
+     */
+    public List<FlightView> search(String origin, String destination, LocalDate date, int passengers) {
+        FlightView[] flights = index.byRouteDay.getOrDefault(new RouteDay(origin, destination, date), Index.NONE);
+        List<FlightView> matches = new ArrayList<>(flights.length);
+        for (FlightView flight : flights) {
+            if (flight.availableSeats() >= passengers) {
+                matches.add(flight);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Cheapest fare per departure day from {@code from} to {@code to} inclusive, leaving out
+     * days without a flight that has {@code passengers} seats.
+     */
+    public List<DailyFare> fareCalendar(String origin, String destination, LocalDate from, LocalDate to,
+                                        int passengers) {
+        Index current = index;
+        List<DailyFare> fares = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            FlightView[] day = current.byRouteDay.getOrDefault(new RouteDay(origin, destination, date), Index.NONE);
+            Money lowest = null;
+            int flights = 0;
+            for (FlightView flight : day) {
+                if (flight.availableSeats() >= passengers) {
+                    flights++;
+                    if (lowest == null || flight.price().minorUnits() < lowest.minorUnits()) {
+                        lowest = flight.price();
+                    }
+                }
+            }
+            if (flights > 0) {
+                fares.add(new DailyFare(date, lowest, flights));
+            }
+        }
+        return fares;
+    }
+
+    /** The flight if it is in the snapshot; flights that already departed may not be. */
+    public Optional<FlightView> findById(long id) {
+        return Optional.ofNullable(index.byId.get(id));
+    }
+
+    /**
+     * Every flight in the snapshot, in no particular order. Flights that already departed may
+     * be among them until the next full reload.
+     */
+    public Collection<FlightView> flights() {
+        return Collections.unmodifiableCollection(index.byId.values());
+    }
+
+    /**
+     * Start of the snapshot's window: a full reload holds the flights departing from then on.
+     * Departure times are airport-local; starting a day back covers every time zone.
+     */
+    public static LocalDateTime windowStart() {
+        return LocalDate.now(ZoneOffset.UTC).minusDays(1).atStartOfDay();
+    }
+
+    @Scheduled(fixedDelayString = "${travelapp.flight-snapshot.refresh-interval:PT2S}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            long startedAt = System.nanoTime();
+            if (index == null || startedAt - reloadedAtNanos >= fullReloadIntervalNanos) {
+                index = load();
+                reloadedAtNanos = startedAt;
+            } else {
+                applyChanges(index);
+            }
+            refreshedAtNanos = startedAt;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Index load() {
+        long startedAt = System.nanoTime();
+        LocalDateTime windowStart = windowStart();
+        Index loaded = new Index(windowStart);
+        loaded.apply(flightRepository.findViewsDepartingFrom(windowStart));
+        log.debug("Flight snapshot reloaded with {} flights in {} ms",
+                  loaded.byId.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return loaded;
+    }
+
+    private void applyChanges(Index current) {
+        List<FlightView> changes = flightRepository.findViewsUpdatedAfter(current.highWaterMark.minus(COMMIT_LAG));
+        if (!changes.isEmpty()) {
+            current.apply(changes);
+        }
+    }
+
+    private record RouteDay(String origin, String destination, LocalDate date) {
+
+        static RouteDay of(FlightView flight) {
+            return new RouteDay(flight.origin(), flight.destination(), flight.departureTime().toLocalDate());
+        }
+    }
+
+    /**
+     * The maps readers see. Changes replace whole entries, so a reader never sees a half-updated
+     * route day; a flight moving to another day may briefly show up on both or neither.
+     */
+    private static final class Index {
+
+        static final FlightView[] NONE = new FlightView[0];
+
+        final LocalDateTime windowStart;
+        final Map<Long, FlightView> byId = new ConcurrentHashMap<>();
+        final Map<RouteDay, FlightView[]> byRouteDay = new ConcurrentHashMap<>();
+        Instant highWaterMark = Instant.EPOCH;
+
+        Index(LocalDateTime windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        void apply(Collection<FlightView> changes) {
+            Map<RouteDay, List<FlightView>> added = new HashMap<>();
+            Set<Long> changedIds = new HashSet<>();
+            Set<RouteDay> affected = new HashSet<>();
+            for (FlightView flight : changes) {
+                if (flight.updatedAt().isAfter(highWaterMark)) {
+                    highWaterMark = flight.updatedAt();
+                }
+                if (flight.departureTime().isBefore(windowStart)) {
+                    continue;
+                }
+                FlightView previous = byId.put(flight.id(), flight);
+                if (previous != null) {
+                    affected.add(RouteDay.of(previous));
+                }
+                RouteDay routeDay = RouteDay.of(flight);
+                affected.add(routeDay);
+                added.computeIfAbsent(routeDay, key -> new ArrayList<>()).add(flight);
+                changedIds.add(flight.id());
+            }
+
+            for (RouteDay routeDay : affected) {
+                List<FlightView> flights = new ArrayList<>(added.getOrDefault(routeDay, List.of()));
+                for (FlightView existing : byRouteDay.getOrDefault(routeDay, NONE)) {
+                    if (!changedIds.contains(existing.id())) {
+                        flights.add(existing);
+                    }
+                }
+                if (flights.isEmpty()) {
+                    byRouteDay.remove(routeDay);
+                } else {
+                    FlightView[] sorted = flights.toArray(FlightView[]::new);
+                    Arrays.sort(sorted, DEPARTURE_ORDER);
+                    byRouteDay.put(routeDay, sorted);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.travelapp.service;
+
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A trip from origin to destination made of one or more flights. Departure and arrival
+ * times are local to their airports; the duration is real elapsed time across time zones.
+ */
+public record Itinerary(List<FlightView> legs, LocalDateTime departureTime, LocalDateTime arrivalTime,
+                        int durationMinutes, Money totalPrice) {
+
+    public int getConnections() {
+        return legs.size() - 1;
+    }
+}
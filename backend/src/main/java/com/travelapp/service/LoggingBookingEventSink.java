@@ -0,0 +1,27 @@
+package com.travelapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs each booking confirmation. Stands in for a confirmation email until one is wired up.
+ */
+@Component
+@ConditionalOnProperty(name = "travelapp.outbox.log-sink.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingBookingEventSink implements BookingEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingBookingEventSink.class);
+
+    @Override
+    public String name() {
+        return "log";
+    }
+
+    @Override
+    public void accept(BookingConfirmedEvent event) {
+        log.info("Booking {} confirmed: {} seat(s) on {} {}-{} departing {}", event.bookingReference(),
+                 event.seats(), event.flightNumber(), event.origin(), event.destination(), event.departureTime());
+    }
+}
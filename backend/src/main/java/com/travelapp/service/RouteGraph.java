@@ -0,0 +1,245 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Immutable, time-expanded view of the flight schedule used to assemble connecting itineraries.
+ *
+ * Airports are nodes and flights are edges. Each airport keeps its departures sorted by UTC
+ * departure instant, so the flights that fit a connection window are one binary search away.
+ * A search scans the origin's departures on the requested day and extends each one leg at a
+ * time, only into connection windows and only towards airports that can still reach the
+ * destination within the remaining number of legs. Once {@code limit} itineraries are known,
+ * partial trips that already arrive later than the worst of them are dropped, as in a
+ * connection scan that stops at the current best arrival.
+ */
+final class RouteGraph {
+
+    /** Upper bound on legs examined per search, so one request can't scan the whole schedule. */
+    static final int MAX_EXPANSIONS = 50_000;
+
+    private static final Departures NO_DEPARTURES = new Departures(new Leg[0]);
+    private static final Comparator<Leg[]> ITINERARY_ORDER = Comparator
+        .<Leg[]>comparingLong(path -> path[path.length - 1].arrival())
+        .thenComparingLong(path -> path[path.length - 1].arrival() - path[0].departure())
+        .thenComparingLong(RouteGraph::totalPriceMinorUnits);
+
+    private final Map<String, Departures> departures;
+    private final Map<String, Set<String>> inboundRoutes;
+    private final AirportTimeZones airportTimeZones;
+
+    private RouteGraph(Map<String, Departures> departures, Map<String, Set<String>> inboundRoutes,
+                       AirportTimeZones airportTimeZones) {
+        this.departures = departures;
+        this.inboundRoutes = inboundRoutes;
+        this.airportTimeZones = airportTimeZones;
+    }
+
+    static RouteGraph build(Collection<FlightView> flights, AirportTimeZones airportTimeZones) {
+        Map<String, List<Leg>> legsByOrigin = new HashMap<>();
+        Map<String, Set<String>> inboundRoutes = new HashMap<>();
+        for (FlightView flight : flights) {
+            long departure = flight.departureTime()
+                .atZone(airportTimeZones.zoneOf(flight.origin())).toEpochSecond();
+            long arrival = flight.arrivalTime()
+                .atZone(airportTimeZones.zoneOf(flight.destination())).toEpochSecond();
+            legsByOrigin.computeIfAbsent(flight.origin(), origin -> new ArrayList<>())
+                .add(new Leg(flight, departure, arrival));
+            inboundRoutes.computeIfAbsent(flight.destination(), destination -> new HashSet<>())
+                .add(flight.origin());
+        }
+
+        Map<String, Departures> departures = new HashMap<>();
+        legsByOrigin.forEach((origin, legs) -> {
+            Leg[] sorted = legs.toArray(Leg[]::new);
+            Arrays.sort(sorted, Comparator.comparingLong(Leg::departure));
+            departures.put(origin, new Departures(sorted));
+        });
+        return new RouteGraph(departures, inboundRoutes, airportTimeZones);
+    }
+
+    int flightCount() {
+        return departures.values().stream().mapToInt(d -> d.legs().length).sum();
+    }
+
+    /**
+     * Finds itineraries leaving {@code origin} on {@code date} (origin-local) with at most
+     * {@code maxConnections} connections, each connection lasting between the given bounds.
+     * Results are ordered by arrival, then total travel time, then price.
+     */
+    List<Itinerary> search(String origin, String destination, LocalDate date, int passengers,
+                           int maxConnections, int limit, long minConnectionSeconds, long maxConnectionSeconds) {
+        if (origin.equals(destination)) {
+            return List.of();
+        }
+        Map<String, Integer> legsToDestination = legsToDestination(destination, maxConnections + 1);
+        if (!legsToDestination.containsKey(origin)) {
+            return List.of();
+        }
+
+        ZoneId zone = airportTimeZones.zoneOf(origin);
+        long dayStart = date.atStartOfDay(zone).toEpochSecond();
+        long nextDayStart = date.plusDays(1).atStartOfDay(zone).toEpochSecond();
+
+        Scan scan = new Scan(destination, passengers, maxConnections + 1, limit, legsToDestination,
+                             minConnectionSeconds, maxConnectionSeconds);
+        Departures fromOrigin = departures.getOrDefault(origin, NO_DEPARTURES);
+        for (int i = fromOrigin.firstAtOrAfter(dayStart);
+             i < fromOrigin.legs().length && fromOrigin.legs()[i].departure() < nextDayStart
+                 && fromOrigin.legs()[i].departure() <= scan.latestUsefulArrival(); i++) {
+            scan.extend(fromOrigin.legs()[i], 0);
+        }
+
+        return scan.found.stream()
+            .sorted(ITINERARY_ORDER)
+            .map(RouteGraph::toItinerary)
+            .toList();
+    }
+
+    /**
+     * Minimum number of legs from each airport to {@code destination}, by breadth-first search
+     * over the routes regardless of time. Airports further than {@code maxLegs} are left out.
+     */
+    private Map<String, Integer> legsToDestination(String destination, int maxLegs) {
+        Map<String, Integer> legs = new HashMap<>();
+        legs.put(destination, 0);
+        Queue<String> queue = new ArrayDeque<>(List.of(destination));
+        while (!queue.isEmpty()) {
+            String airport = queue.remove();
+            int distance = legs.get(airport);
+            if (distance == maxLegs) {
+                continue;
+            }
+            for (String previous : inboundRoutes.getOrDefault(airport, Set.of())) {
+                if (legs.putIfAbsent(previous, distance + 1) == null) {
+                    queue.add(previous);
+                }
+            }
+        }
+        return legs;
+    }
+
+    private static Itinerary toItinerary(Leg[] path) {
+        Leg first = path[0];
+        Leg last = path[path.length - 1];
+        return new Itinerary(
+            Arrays.stream(path).map(Leg::flight).toList(),
+            first.flight().departureTime(),
+            last.flight().arrivalTime(),
+            (int) ((last.arrival() - first.departure()) / 60),
+            Money.ofMinor(totalPriceMinorUnits(path), Flight.CURRENCY));
+    }
+
+    private static long totalPriceMinorUnits(Leg[] path) {
+        long total = 0;
+        for (Leg leg : path) {
+            total += leg.flight().price().minorUnits();
+        }
+        return total;
+    }
+
+    private final class Scan {
+
+        private final String destination;
+        private final int passengers;
+        private final int limit;
+        private final Leg[] path;
+        private final Map<String, Integer> legsToDestination;
+        private final long minConnectionSeconds;
+        private final long maxConnectionSeconds;
+        // Worst itinerary at the head, so it can be replaced by a better one
+        private final PriorityQueue<Leg[]> found = new PriorityQueue<>(ITINERARY_ORDER.reversed());
+        private int expansions;
+
+        Scan(String destination, int passengers, int maxLegs, int limit, Map<String, Integer> legsToDestination,
+             long minConnectionSeconds, long maxConnectionSeconds) {
+            this.destination = destination;
+            this.passengers = passengers;
+            this.limit = limit;
+            this.path = new Leg[maxLegs];
+            this.legsToDestination = legsToDestination;
+            this.minConnectionSeconds = minConnectionSeconds;
+            this.maxConnectionSeconds = maxConnectionSeconds;
+        }
+
+        /** Arrival after which a trip can no longer make it into the results. */
+        long latestUsefulArrival() {
+            return found.size() < limit ? Long.MAX_VALUE : found.peek()[found.peek().length - 1].arrival();
+        }
+
+        void extend(Leg leg, int depth) {
+            if (++expansions > MAX_EXPANSIONS || leg.flight().availableSeats() < passengers
+                || leg.arrival() > latestUsefulArrival()) {
+                return;
+            }
+            String airport = leg.flight().destination();
+            Integer remaining = legsToDestination.get(airport);
+            if (remaining == null || depth + 1 + remaining > path.length || visited(airport, depth)) {
+                return;
+            }
+
+            path[depth] = leg;
+            if (airport.equals(destination)) {
+                found.add(Arrays.copyOf(path, depth + 1));
+                if (found.size() > limit) {
+                    found.poll();
+                }
+                return;
+            }
+            Departures next = departures.getOrDefault(airport, NO_DEPARTURES);
+            long latest = leg.arrival() + maxConnectionSeconds;
+            for (int i = next.firstAtOrAfter(leg.arrival() + minConnectionSeconds);
+                 i < next.legs().length && next.legs()[i].departure() <= latest
+                     && next.legs()[i].departure() <= latestUsefulArrival(); i++) {
+                extend(next.legs()[i], depth + 1);
+            }
+        }
+
+        private boolean visited(String airport, int depth) {
+            for (int i = 0; i < depth; i++) {
+                if (path[i].flight().origin().equals(airport)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Leg(FlightView flight, long departure, long arrival) {
+    }
+
+    private record Departures(Leg[] legs) {
+
+        /** Index of the first departure at or after {@code epochSecond}. */
+        int firstAtOrAfter(long epochSecond) {
+            int low = 0;
+            int high = legs.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (legs[mid].departure() < epochSecond) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.travelapp.service;
+
+import com.travelapp.model.FlightView;
+import com.travelapp.repository.FlightRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the in-memory {@link RouteGraph} and answers connection searches from it.
+ *
+ * The graph is rebuilt every {@code travelapp.route-graph.refresh-interval} from the flight
+ * snapshot's views, or from the database while the snapshot isn't fresh. New flights show up
+ * within one interval plus the snapshot's lag, and seat counts used to filter legs may be that
+ * old; booking still takes seats with the authoritative conditional update. A rebuild swaps
+ * the whole graph at once, and searches never wait for one.
+ */
+@Service
+public class RouteGraphService {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteGraphService.class);
+
+    private final FlightSnapshotService flightSnapshot;
+    private final FlightRepository flightRepository;
+    private final AirportTimeZones airportTimeZones;
+    private final long minConnectionSeconds;
+    private final long maxConnectionSeconds;
+    private final AtomicReference<RouteGraph> graph = new AtomicReference<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public RouteGraphService(FlightSnapshotService flightSnapshot, FlightRepository flightRepository,
+                             AirportTimeZones airportTimeZones,
+                             @Value("${travelapp.itinerary.min-connection:PT45M}") Duration minConnection,
+                             @Value("${travelapp.itinerary.max-connection:PT6H}") Duration maxConnection) {
+        this.flightSnapshot = flightSnapshot;
+        this.flightRepository = flightRepository;
+        this.airportTimeZones = airportTimeZones;
+        this.minConnectionSeconds = minConnection.toSeconds();
+        this.maxConnectionSeconds = maxConnection.toSeconds();
+    }
+
+    public List<Itinerary> search(String origin, String destination, LocalDate date, int passengers,
+                                  int maxConnections, int limit) {
+        return currentGraph().search(origin, destination, date, passengers, maxConnections, limit,
+                                     minConnectionSeconds, maxConnectionSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${travelapp.route-graph.refresh-interval:PT1M}")
+    public void refresh() {
+        refreshLock.lock();
+        try {
+            graph.set(load());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private RouteGraph currentGraph() {
+        RouteGraph current = graph.get();
+        if (current != null) {
+            return current;
+        }
+        refreshLock.lock();
+        try {
+            current = graph.get();
+            if (current == null) {
+                current = load();
+                graph.set(current);
+            }
+            return current;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private RouteGraph load() {
+        long startedAt = System.nanoTime();
+        RouteGraph loaded = RouteGraph.build(upcomingFlights(), airportTimeZones);
+        log.debug("Route graph rebuilt with {} flights in {} ms",
+                  loaded.flightCount(), (System.nanoTime() - startedAt) / 1_000_000);
+        return loaded;
+    }
+
+    private Collection<FlightView> upcomingFlights() {
+        if (flightSnapshot.isFresh()) {
+            return flightSnapshot.flights();
+        }
+        return flightRepository.findViewsDepartingFrom(FlightSnapshotService.windowStart());
+    }
+}
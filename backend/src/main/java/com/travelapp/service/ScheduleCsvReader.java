@@ -0,0 +1,125 @@
+package com.travelapp.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads a flight schedule CSV one line at a time, so a season's file is never held in memory.
+ *
+ * The first line names the columns, in any order; every one of {@link #COLUMNS} must be
+ * present and others are ignored. Fields may be double-quoted, with {@code ""} for a quote
+ * inside them, but may not span lines. Blank lines are skipped.
+ */
+final class ScheduleCsvReader implements Closeable {
+
+    static final List<String> COLUMNS = List.of(
+        "flight_number", "airline", "origin", "destination", "departure_time", "arrival_time",
+        "duration_minutes", "price", "stops", "aircraft_type", "available_seats");
+
+    private final BufferedReader reader;
+    private final int[] positions;
+    private final int fieldCount;
+    private long lineNumber;
+
+    ScheduleCsvReader(Reader reader) throws IOException {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        String header = this.reader.readLine();
+        lineNumber = 1;
+        if (header == null) {
+            throw new IllegalArgumentException("Schedule file is empty");
+        }
+        Map<String, Integer> byName = new HashMap<>();
+        List<String> names = split(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            byName.putIfAbsent(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        this.positions = new int[COLUMNS.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            Integer position = byName.get(COLUMNS.get(i));
+            if (position == null) {
+                missing.add(COLUMNS.get(i));
+            } else {
+                positions[i] = position;
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Schedule file is missing columns " + missing);
+        }
+        this.fieldCount = Arrays.stream(positions).max().orElseThrow() + 1;
+    }
+
+    /**
+     * The next row's fields in {@link #COLUMNS} order, or null at the end of the file. Throws
+     * {@link IllegalArgumentException} for a row that can't be split; reading can go on after it.
+     */
+    String[] next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+
+        List<String> fields = split(line);
+        if (fields.size() < fieldCount) {
+            throw new IllegalArgumentException("Expected " + fieldCount + " fields but found " + fields.size());
+        }
+        String[] row = new String[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            row[i] = fields.get(positions[i]).trim();
+        }
+        return row;
+    }
+
+    /** Line of the row last returned by {@link #next()}, counting the header as line 1. */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,18 @@
+package com.travelapp.service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one schedule import. {@code unchanged} rows matched a flight exactly;
+ * {@code superseded} rows were replaced by a later row for the same flight in the same batch;
+ * {@code errors} holds the first rejected rows as "line N: reason".
+ */
+public record ScheduleImportReport(long rowsRead, long inserted, long updated, long unchanged, long superseded,
+                                   long rejected, List<String> errors, Duration elapsed) {
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rowsRead * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,42 @@
+package com.travelapp.service;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Imports the schedule files named by {@code --import-schedule=<path>} once the application has
+ * started, e.g. {@code java -jar app.jar --import-schedule=summer.csv}. The option may be
+ * repeated; files are imported in order and each is reported in the log.
+ */
+@Component
+public class ScheduleImportRunner implements ApplicationRunner {
+
+    static final String OPTION = "import-schedule";
+
+    private final ScheduleImportService importService;
+
+    public ScheduleImportRunner(ScheduleImportService importService) {
+        this.importService = importService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<String> files = args.getOptionValues(OPTION);
+        if (files == null) {
+            return;
+        }
+        for (String file : files) {
+            try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                importService.importSchedule(reader);
+            }
+        }
+    }
+}
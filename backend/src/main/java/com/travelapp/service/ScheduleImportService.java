@@ -0,0 +1,381 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Loads an airline schedule feed into the flight table. PostgreSQL only.
+ *
+ * The file is read a row at a time (see {@link ScheduleCsvReader}), and each row is checked
+ * against the constraints on {@link Flight}. Rows that fail are skipped and reported with their
+ * line number. Valid rows are streamed with {@code COPY} into a session-local staging table, and
+ * every {@code batch-size} rows are merged into {@code flight} on {@code uq_flight_instance}
+ * and committed. Short transactions keep row locks brief, and keep {@code updated_at} recent
+ * enough for the flight snapshot to pick the rows up on its next poll. Searches read committed
+ * rows as before and are not blocked.
+ *
+ * A row for an existing flight updates its schedule, fare and aircraft. Available seats are only
+ * set for new flights, since on existing ones they reflect bookings. When the same flight
+ * appears twice in a file, the later row wins; an earlier row in the same batch is counted as
+ * superseded rather than unchanged.
+ */
+@Service
+public class ScheduleImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduleImportService.class);
+
+    static final int MAX_REPORTED_ERRORS = 100;
+
+    /** {@code price DECIMAL(10,2)} holds at most 8 digits before the point. */
+    private static final long MAX_PRICE_MINOR_UNITS = 9_999_999_999L;
+
+    private static final String CREATE_STAGING = """
+        CREATE TEMP TABLE IF NOT EXISTS flight_staging (
+            line_number BIGINT NOT NULL,
+            flight_number VARCHAR(10) NOT NULL,
+            airline VARCHAR(100) NOT NULL,
+            origin VARCHAR(3) NOT NULL,
+            destination VARCHAR(3) NOT NULL,
+            departure_time TIMESTAMP NOT NULL,
+            arrival_time TIMESTAMP NOT NULL,
+            duration_minutes INTEGER NOT NULL,
+            price DECIMAL(10,2) NOT NULL,
+            stops INTEGER NOT NULL,
+            aircraft_type VARCHAR(50) NOT NULL,
+            available_seats INTEGER NOT NULL
+        ) ON COMMIT DELETE ROWS
+        """;
+
+    private static final String COPY_STAGING = """
+        COPY flight_staging (line_number, flight_number, airline, origin, destination, departure_time,
+                             arrival_time, duration_minutes, price, stops, aircraft_type, available_seats)
+        FROM STDIN WITH (FORMAT csv)
+        """;
+
+    // The final SELECT reads flight as of the start of the statement, without the merge's own
+    // writes, so a returned row is an insert exactly when no flight had its key before. Staged
+    // rows beyond one per key are the ones DISTINCT ON dropped for a later row.
+    private static final String MERGE_STAGING = """
+        WITH merged AS (
+            INSERT INTO flight (flight_number, airline, origin, destination, departure_time, arrival_time,
+                                duration_minutes, price, stops, aircraft_type, available_seats)
+            SELECT DISTINCT ON (flight_number, departure_time)
+                   flight_number, airline, origin, destination, departure_time, arrival_time,
+                   duration_minutes, price, stops, aircraft_type, available_seats
+            FROM flight_staging
+            ORDER BY flight_number, departure_time, line_number DESC
+            ON CONFLICT ON CONSTRAINT uq_flight_instance DO UPDATE SET
+                airline = EXCLUDED.airline,
+                origin = EXCLUDED.origin,
+                destination = EXCLUDED.destination,
+                arrival_time = EXCLUDED.arrival_time,
+                duration_minutes = EXCLUDED.duration_minutes,
+                price = EXCLUDED.price,
+                stops = EXCLUDED.stops,
+                aircraft_type = EXCLUDED.aircraft_type,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE (flight.airline, flight.origin, flight.destination, flight.arrival_time, flight.duration_minutes,
+                   flight.price, flight.stops, flight.aircraft_type)
+                IS DISTINCT FROM (EXCLUDED.airline, EXCLUDED.origin, EXCLUDED.destination, EXCLUDED.arrival_time,
+                                  EXCLUDED.duration_minutes, EXCLUDED.price, EXCLUDED.stops, EXCLUDED.aircraft_type)
+            RETURNING flight_number, departure_time
+        ),
+        classified AS (
+            SELECT NOT EXISTS (SELECT 1 FROM flight
+                               WHERE flight.flight_number = merged.flight_number
+                                 AND flight.departure_time = merged.departure_time) AS inserted
+            FROM merged
+        )
+        SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted),
+               (SELECT count(*) - count(DISTINCT (flight_number, departure_time)) FROM flight_staging)
+        FROM classified
+        """;
+
+    private final DataSource dataSource;
+    private final Validator validator;
+    private final int batchSize;
+    private final ReentrantLock importLock = new ReentrantLock();
+    private final Counter insertedRows;
+    private final Counter updatedRows;
+    private final Counter unchangedRows;
+    private final Counter supersededRows;
+    private final Counter rejectedRows;
+
+    public ScheduleImportService(DataSource dataSource, Validator validator,
+                                 @Value("${travelapp.schedule-import.batch-size:10000}") int batchSize,
+                                 MeterRegistry meterRegistry) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Schedule import batch size must be at least 1");
+        }
+        this.dataSource = dataSource;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.insertedRows = rowCounter("inserted", meterRegistry);
+        this.updatedRows = rowCounter("updated", meterRegistry);
+        this.unchangedRows = rowCounter("unchanged", meterRegistry);
+        this.supersededRows = rowCounter("superseded", meterRegistry);
+        this.rejectedRows = rowCounter("rejected", meterRegistry);
+    }
+
+    /**
+     * Imports the schedule CSV read from {@code source}. One import runs at a time; a second
+     * one fails with {@link IllegalStateException} rather than queue up. A file without the
+     * required header fails with {@link IllegalArgumentException}. If the database fails
+     * part-way, batches merged before the failure stay committed.
+     */
+    public ScheduleImportReport importSchedule(Reader source) {
+        if (!importLock.tryLock()) {
+            throw new IllegalStateException("A schedule import is already running");
+        }
+        try {
+            return runImport(source);
+        } finally {
+            importLock.unlock();
+        }
+    }
+
+    private ScheduleImportReport runImport(Reader source) {
+        long startedAt = System.nanoTime();
+        ImportProgress progress = new ImportProgress();
+        try (ScheduleCsvReader reader = new ScheduleCsvReader(source);
+             Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_STAGING);
+                }
+                boolean more = true;
+                while (more) {
+                    more = stageBatch(reader, copyManager, progress);
+                    mergeBatch(connection, progress);
+                    connection.commit();
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE flight_staging");
+                }
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Schedule import failed near line " + progress.lastLine + " after "
+                                            + (progress.inserted + progress.updated) + " flights were saved", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Schedule import could not read line " + (progress.lastLine + 1), e);
+        }
+
+        ScheduleImportReport report = new ScheduleImportReport(progress.rowsRead, progress.inserted,
+            progress.updated, progress.unchanged, progress.superseded, progress.rejected,
+            List.copyOf(progress.errors), Duration.ofNanos(System.nanoTime() - startedAt));
+        log.info("Schedule import: {} rows read, {} inserted, {} updated, {} unchanged, {} superseded, "
+                 + "{} rejected in {} ms ({} rows/s)", report.rowsRead(), report.inserted(), report.updated(),
+                 report.unchanged(), report.superseded(), report.rejected(), report.elapsed().toMillis(),
+                 Math.round(report.rowsPerSecond()));
+        return report;
+    }
+
+    /** Copies up to one batch of valid rows into the staging table; false once the file ends. */
+    private boolean stageBatch(ScheduleCsvReader reader, CopyManager copyManager, ImportProgress progress)
+        throws SQLException, IOException {
+        CopyIn copy = copyManager.copyIn(COPY_STAGING);
+        try {
+            StringBuilder line = new StringBuilder(256);
+            progress.staged = 0;
+            while (progress.staged < batchSize) {
+                Flight flight;
+                try {
+                    String[] row = reader.next();
+                    if (row == null) {
+                        copy.endCopy();
+                        return false;
+                    }
+                    flight = toFlight(row);
+                } catch (IllegalArgumentException e) {
+                    progress.reject(reader.lineNumber(), e.getMessage());
+                    rejectedRows.increment();
+                    continue;
+                }
+                progress.read(reader.lineNumber());
+                line.setLength(0);
+                appendCopyRow(line, reader.lineNumber(), flight);
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                copy.writeToCopy(bytes, 0, bytes.length);
+                progress.staged++;
+            }
+            copy.endCopy();
+            return true;
+        } finally {
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private void mergeBatch(Connection connection, ImportProgress progress) throws SQLException {
+        if (progress.staged == 0) {
+            return;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet merged = statement.executeQuery(MERGE_STAGING)) {
+            merged.next();
+            long inserted = merged.getLong(1);
+            long updated = merged.getLong(2);
+            long superseded = merged.getLong(3);
+            long unchanged = progress.staged - inserted - updated - superseded;
+            progress.inserted += inserted;
+            progress.updated += updated;
+            progress.unchanged += unchanged;
+            progress.superseded += superseded;
+            insertedRows.increment(inserted);
+            updatedRows.increment(updated);
+            unchangedRows.increment(unchanged);
+            supersededRows.increment(superseded);
+        }
+    }
+
+    /** The row as a flight that satisfies the entity's constraints; else {@link IllegalArgumentException}. */
+    private Flight toFlight(String[] row) {
+        Flight flight = new Flight();
+        flight.setFlightNumber(row[0]);
+        flight.setAirline(row[1]);
+        flight.setOrigin(row[2]);
+        flight.setDestination(row[3]);
+        flight.setDepartureTime(parseTime(row[4], "departure_time"));
+        flight.setArrivalTime(parseTime(row[5], "arrival_time"));
+        flight.setDurationMinutes(parseInt(row[6], "duration_minutes"));
+        flight.setPrice(parsePrice(row[7]));
+        flight.setStops(parseInt(row[8], "stops"));
+        flight.setAircraftType(row[9]);
+        flight.setAvailableSeats(parseInt(row[10], "available_seats"));
+
+        Set<ConstraintViolation<Flight>> violations = validator.validate(flight);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; ")));
+        }
+        return flight;
+    }
+
+    private static void appendCopyRow(StringBuilder line, long lineNumber, Flight flight) {
+        line.append(lineNumber).append(',');
+        appendQuoted(line, flight.getFlightNumber()).append(',');
+        appendQuoted(line, flight.getAirline()).append(',');
+        appendQuoted(line, flight.getOrigin()).append(',');
+        appendQuoted(line, flight.getDestination()).append(',');
+        line.append(flight.getDepartureTime()).append(',')
+            .append(flight.getArrivalTime()).append(',')
+            .append(flight.getDurationMinutes()).append(',')
+            .append(flight.getPrice().toBigDecimal().toPlainString()).append(',')
+            .append(flight.getStops()).append(',');
+        appendQuoted(line, flight.getAircraftType()).append(',');
+        line.append(flight.getAvailableSeats()).append('\n');
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder line, String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        return line.append('"');
+    }
+
+    private static LocalDateTime parseTime(String value, String column) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+
+    private static Integer parseInt(String value, String column) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+
+    private static Money parsePrice(String value) {
+        Money price;
+        try {
+            price = Money.of(new BigDecimal(value), Flight.CURRENCY);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Invalid price: '" + value + "'");
+        }
+        if (price.minorUnits() > MAX_PRICE_MINOR_UNITS) {
+            throw new IllegalArgumentException("Price must be below 100000000");
+        }
+        return price;
+    }
+
+    private static Counter rowCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("travelapp.schedule.import.rows")
+            .description("Schedule import rows, by what the import did with them")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    private static final class ImportProgress {
+
+        final List<String> errors = new ArrayList<>();
+        long rowsRead;
+        long inserted;
+        long updated;
+        long unchanged;
+        long superseded;
+        long rejected;
+        long lastLine = 1;
+        int staged;
+
+        void read(long lineNumber) {
+            rowsRead++;
+            lastLine = lineNumber;
+        }
+
+        void reject(long lineNumber, String reason) {
+            read(lineNumber);
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.travelapp.service;
+
+import com.travelapp.repository.FlightRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Takes seats from flight inventory.
+ *
+ * The database row is the only source of truth: seats are taken with one conditional
+ * UPDATE, which is safe across any number of backend instances. In front of it sits an
+ * in-memory layer remembering, per flight, an upper bound on the seats left whenever a
+ * decrement fails. Requests that can't fit under that bound are rejected without a
+ * database round trip, so a sold-out popular flight stops queueing on its row lock.
+ * Entries expire after {@code travelapp.inventory.sold-out-ttl} (PT0S disables the layer)
+ * so seats added outside this application are picked up again.
+ */
+@Service
+@Transactional
+public class SeatInventoryService {
+
+    private final FlightRepository flightRepository;
+    private final long soldOutTtlNanos;
+    private final ConcurrentMap<Long, SeatBound> seatBounds = new ConcurrentHashMap<>();
+
+    public SeatInventoryService(FlightRepository flightRepository,
+                                @Value("${travelapp.inventory.sold-out-ttl:PT30S}") Duration soldOutTtl) {
+        this.flightRepository = flightRepository;
+        this.soldOutTtlNanos = soldOutTtl.toNanos();
+    }
+
+    /**
+     * Takes {@code seats} seats from the flight departing at {@code departureTime} within the
+     * current transaction.
+     *
+     * @return true if the seats were taken, false if the flight doesn't depart at that time or
+     *         has too few seats left
+     */
+    public boolean reserveSeats(Long flightId, LocalDateTime departureTime, int seats) {
+        if (seats <= 0) {
+            throw new IllegalArgumentException("Seats must be greater than zero");
+        }
+        if (isKnownUnavailable(flightId, departureTime, seats)) {
+            return false;
+        }
+        if (flightRepository.decrementAvailableSeats(flightId, departureTime, seats) == 1) {
+            return true;
+        }
+        rememberUnavailable(flightId, departureTime, seats);
+        return false;
+    }
+
+    private boolean isKnownUnavailable(Long flightId, LocalDateTime departureTime, int seats) {
+        SeatBound bound = seatBounds.get(flightId);
+        // A bound recorded for another departure time says nothing about this one
+        if (bound == null || !bound.departureTime().equals(departureTime)) {
+            return false;
+        }
+        if (System.nanoTime() - bound.recordedAtNanos() > soldOutTtlNanos) {
+            seatBounds.remove(flightId, bound);
+            return false;
+        }
+        return seats > bound.maxSeatsLeft();
+    }
+
+    private void rememberUnavailable(Long flightId, LocalDateTime departureTime, int seats) {
+        if (soldOutTtlNanos <= 0) {
+            return;
+        }
+        // The decrement failed, so strictly fewer than the requested seats are left.
+        SeatBound failed = new SeatBound(departureTime, seats - 1, System.nanoTime());
+        seatBounds.merge(flightId, failed,
+            (current, next) -> current.departureTime().equals(next.departureTime())
+                && current.maxSeatsLeft() <= next.maxSeatsLeft() ? current : next);
+    }
+
+    private record SeatBound(LocalDateTime departureTime, int maxSeatsLeft, long recordedAtNanos) {
+    }
+}
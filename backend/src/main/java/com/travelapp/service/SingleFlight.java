@@ -0,0 +1,76 @@
+package com.travelapp.service;
+
+import io.micrometer.core.instrument.Counter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one execution per key at a time. A caller asking for a key that is already
+ * being executed waits for that execution and gets its result or its exception, for at most
+ * {@code timeout}; the execution itself runs on the first caller's thread and is not bounded.
+ * Nothing is kept once an execution ends, so caching its result is up to the caller.
+ */
+final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Counter timedOut;
+
+    SingleFlight(Duration timeout, Counter executed, Counter coalesced, Counter timedOut) {
+        this.timeoutNanos = timeout.toNanos();
+        this.executed = executed;
+        this.coalesced = coalesced;
+        this.timedOut = timedOut;
+    }
+
+    V execute(K key, Supplier<? extends V> execution) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        executed.increment();
+        try {
+            V value = execution.get();
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            // Rethrow the execution's own exception so waiters fail exactly as the first caller did
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            throw new IllegalStateException("Timed out waiting for an identical request already in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for an identical request already in progress");
+        }
+    }
+}
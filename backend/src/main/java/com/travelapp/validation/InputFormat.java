@@ -0,0 +1,29 @@
+package com.travelapp.validation;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string must satisfy the given {@link InputRule}. Null is valid;
+ * combine with {@code @NotNull} or {@code @NotBlank} to require a value.
+ */
+@Documented
+@Constraint(validatedBy = InputFormatValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface InputFormat {
+
+    InputRule value();
+
+    String message() default "has an invalid format";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,19 @@
+package com.travelapp.validation;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class InputFormatValidator implements ConstraintValidator<InputFormat, CharSequence> {
+
+    private InputRule rule;
+
+    @Override
+    public void initialize(InputFormat constraint) {
+        this.rule = constraint.value();
+    }
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || rule.matches(value);
+    }
+}
@@ -0,0 +1,24 @@
+package com.travelapp.validation;
+
+import java.util.function.Predicate;
+
+/**
+ * The {@link InputRules} an entity field can be constrained to with {@link InputFormat}.
+ */
+public enum InputRule {
+    AIRPORT_CODE(InputRules::isAirportCode),
+    FLIGHT_NUMBER(InputRules::isFlightNumber),
+    BOOKING_REFERENCE(InputRules::isBookingReference),
+    EMAIL(InputRules::isEmail),
+    PHONE_NUMBER(InputRules::isPhoneNumber);
+
+    private final Predicate<CharSequence> rule;
+
+    InputRule(Predicate<CharSequence> rule) {
+        this.rule = rule;
+    }
+
+    public boolean matches(CharSequence value) {
+        return rule.test(value);
+    }
+}
@@ -0,0 +1,188 @@
+package com.travelapp.validation;
+
+/**
+ * Format rules for user input, shared by the services and the entity constraints.
+ *
+ * Each rule is a single pass over the characters: no {@code Pattern} is compiled, no
+ * {@code Matcher} or trimmed copy is allocated, so the checks cost nothing on the heap.
+ * Null values never match.
+ */
+public final class InputRules {
+
+    private static final int MAX_EMAIL_LOCAL_PART = 64;
+    private static final int MAX_EMAIL_LENGTH = 255;
+    private static final int MAX_DOMAIN_LABEL = 63;
+    private static final int MIN_PHONE_DIGITS = 10;
+    private static final int MAX_PHONE_DIGITS = 15;
+
+    private InputRules() {
+    }
+
+    /**
+     * Three uppercase letters, e.g. {@code SFO}.
+     */
+    public static boolean isAirportCode(CharSequence value) {
+        return value != null && value.length() == 3
+            && isUpper(value.charAt(0)) && isUpper(value.charAt(1)) && isUpper(value.charAt(2));
+    }
+
+    /**
+     * Three letters in any case, e.g. {@code sfo}.
+     */
+    public static boolean isAirportCodeIgnoreCase(CharSequence value) {
+        return value != null && value.length() == 3
+            && isLetter(value.charAt(0)) && isLetter(value.charAt(1)) && isLetter(value.charAt(2));
+    }
+
+    /**
+     * Two uppercase letters followed by three or four digits, e.g. {@code UA1234}.
+     */
+    public static boolean isFlightNumber(CharSequence value) {
+        if (value == null || value.length() < 5 || value.length() > 6) {
+            return false;
+        }
+        if (!isUpper(value.charAt(0)) || !isUpper(value.charAt(1))) {
+            return false;
+        }
+        for (int i = 2; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Six uppercase letters or digits, e.g. {@code K7Q2ZD}.
+     */
+    public static boolean isBookingReference(CharSequence value) {
+        if (value == null || value.length() != 6) {
+            return false;
+        }
+        for (int i = 0; i < 6; i++) {
+            char c = value.charAt(i);
+            if (!isUpper(c) && !isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A local part of letters, digits and {@code + _ . -} (no leading, trailing or doubled
+     * dot), an {@code @}, and a domain of dot-separated letter/digit/hyphen labels.
+     */
+    public static boolean isEmail(CharSequence value) {
+        if (value == null || value.length() > MAX_EMAIL_LENGTH) {
+            return false;
+        }
+        int at = -1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '@') {
+                at = i;
+                break;
+            }
+        }
+        if (at < 1 || at > MAX_EMAIL_LOCAL_PART) {
+            return false;
+        }
+        return isEmailLocalPart(value, 0, at) && isDomain(value, at + 1, value.length());
+    }
+
+    /**
+     * An optional leading {@code +} and 10 to 15 digits, the first of which isn't zero
+     * (E.164 without separators), e.g. {@code +14155550123}.
+     */
+    public static boolean isPhoneNumber(CharSequence value) {
+        if (value == null) {
+            return false;
+        }
+        int start = value.length() > 0 && value.charAt(0) == '+' ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits < MIN_PHONE_DIGITS || digits > MAX_PHONE_DIGITS || value.charAt(start) == '0') {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether the value, ignoring leading and trailing whitespace, has between
+     * {@code min} and {@code max} characters.
+     */
+    public static boolean hasTrimmedLength(CharSequence value, int min, int max) {
+        if (value == null) {
+            return false;
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int length = end - start;
+        return length >= min && length <= max;
+    }
+
+    private static boolean isEmailLocalPart(CharSequence value, int start, int end) {
+        char previous = '.';
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (previous == '.') {
+                    return false;
+                }
+            } else if (!isLetter(c) && !isDigit(c) && c != '+' && c != '_' && c != '-') {
+                return false;
+            }
+            previous = c;
+        }
+        return previous != '.';
+    }
+
+    private static boolean isDomain(CharSequence value, int start, int end) {
+        int labelStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || value.charAt(i) == '.') {
+                if (!isDomainLabel(value, labelStart, i)) {
+                    return false;
+                }
+                labelStart = i + 1;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDomainLabel(CharSequence value, int start, int end) {
+        int length = end - start;
+        if (length < 1 || length > MAX_DOMAIN_LABEL
+            || value.charAt(start) == '-' || value.charAt(end - 1) == '-') {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!isLetter(c) && !isDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLetter(char c) {
+        return isUpper(c) || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset travelapp:004-add-seats-to-search-index
+-- Searches filter on available_seats >= :passengers. Keeping it as the trailing key
+-- column lets the btree evaluate that predicate inside the index, so sold-out flights
+-- are skipped without visiting the heap.
+DROP INDEX idx_flight_search;
+CREATE INDEX idx_flight_search ON flight(origin, destination, departure_time, available_seats);
+
+--rollback DROP INDEX idx_flight_search;
+--rollback CREATE INDEX idx_flight_search ON flight(origin, destination, departure_time);
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset travelapp:005-add-booking-seats
+ALTER TABLE booking ADD COLUMN seats INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE booking ADD CONSTRAINT chk_booking_seats CHECK (seats BETWEEN 1 AND 9);
+
+--rollback ALTER TABLE booking DROP COLUMN seats;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset travelapp:006-create-booking-reference-sequence
+-- Each nextval reserves a block of booking references for one backend instance.
+-- See BookingReferenceGenerator.
+CREATE SEQUENCE booking_reference_seq START WITH 1 INCREMENT BY 1;
+
+--rollback DROP SEQUENCE booking_reference_seq;
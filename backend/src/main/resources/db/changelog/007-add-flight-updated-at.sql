@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset travelapp:007-add-flight-updated-at
+-- Change feed for the in-memory flight snapshot: every write sets updated_at to the
+-- database clock, and the snapshot polls for rows changed since the last one it saw.
+ALTER TABLE flight ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
+CREATE INDEX idx_flight_updated_at ON flight(updated_at);
+
+--rollback DROP INDEX idx_flight_updated_at;
+--rollback ALTER TABLE flight DROP COLUMN updated_at;
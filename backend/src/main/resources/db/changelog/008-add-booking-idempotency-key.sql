@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset travelapp:008-add-booking-idempotency-key
+-- Optional client-chosen key of the createBooking request that made a booking. The unique
+-- index lets one request succeed per key; retries with the key get that booking back.
+ALTER TABLE booking ADD COLUMN idempotency_key VARCHAR(64);
+CREATE UNIQUE INDEX uk_booking_idempotency_key ON booking(idempotency_key);
+
+--rollback DROP INDEX uk_booking_idempotency_key;
+--rollback ALTER TABLE booking DROP COLUMN idempotency_key;
@@ -0,0 +1,157 @@
+--liquibase formatted sql
+
+--changeset travelapp:009-partition-flight-by-departure-month splitStatements:false
+-- Range-partitions flight by departure month, so searches and the snapshot reload only touch the
+-- months they ask for, and past months can be detached whole (see FlightPartitionMaintenance).
+-- A unique key on a partitioned table must include the partition key: the primary key becomes
+-- (id, departure_time), ids still come from flight_id_seq, and fk_booking_flight references
+-- both columns through a copy of the departure time on booking. Booking itself stays one table
+-- so booking_reference and idempotency_key remain unique across all bookings.
+ALTER TABLE booking ADD COLUMN flight_departure_time TIMESTAMP;
+UPDATE booking SET flight_departure_time = flight.departure_time FROM flight WHERE flight.id = booking.flight_id;
+ALTER TABLE booking ALTER COLUMN flight_departure_time SET NOT NULL;
+ALTER TABLE booking DROP CONSTRAINT fk_booking_flight;
+
+ALTER TABLE flight RENAME TO flight_unpartitioned;
+ALTER SEQUENCE flight_id_seq OWNED BY NONE;
+ALTER INDEX flight_pkey RENAME TO flight_unpartitioned_pkey;
+ALTER INDEX uq_flight_instance RENAME TO uq_flight_unpartitioned_instance;
+DROP INDEX idx_flight_search;
+DROP INDEX idx_flight_departure;
+DROP INDEX idx_flight_updated_at;
+
+CREATE TABLE flight (
+    id BIGINT NOT NULL DEFAULT nextval('flight_id_seq'),
+    flight_number VARCHAR(10) NOT NULL,
+    airline VARCHAR(100) NOT NULL,
+    origin VARCHAR(3) NOT NULL,
+    destination VARCHAR(3) NOT NULL,
+    departure_time TIMESTAMP NOT NULL,
+    arrival_time TIMESTAMP NOT NULL,
+    duration_minutes INTEGER NOT NULL,
+    price DECIMAL(10,2) NOT NULL,
+    stops INTEGER NOT NULL,
+    aircraft_type VARCHAR(50) NOT NULL,
+    available_seats INTEGER NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT flight_pkey PRIMARY KEY (id, departure_time),
+    CONSTRAINT chk_airport_codes CHECK (
+        origin ~ '^[A-Z]{3}$' AND destination ~ '^[A-Z]{3}$'
+    ),
+    CONSTRAINT chk_positive_values CHECK (
+        duration_minutes > 0 AND
+        price > 0 AND
+        stops >= 0 AND
+        available_seats >= 0
+    ),
+    CONSTRAINT uq_flight_instance UNIQUE (flight_number, departure_time),
+    CONSTRAINT chk_time_logic CHECK (arrival_time > departure_time)
+) PARTITION BY RANGE (departure_time);
+ALTER SEQUENCE flight_id_seq OWNED BY flight.id;
+
+CREATE INDEX idx_flight_search ON flight(origin, destination, departure_time, available_seats);
+CREATE INDEX idx_flight_departure ON flight(departure_time);
+CREATE INDEX idx_flight_updated_at ON flight(updated_at);
+
+-- Creates the partition flight_YYYY_MM for the month of first_day unless it exists, and names
+-- its indexes after the parent's (idx_flight_search_YYYY_MM, ...). Returns whether it did.
+-- Both partition functions take the same advisory lock, so instances running maintenance at
+-- once change one partition at a time and see each other's changes.
+CREATE FUNCTION create_flight_partition(first_day DATE) RETURNS BOOLEAN LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', first_day);
+    suffix TEXT := to_char(month_start, 'YYYY_MM');
+    partition_name TEXT := 'flight_' || suffix;
+    partition_index RECORD;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('flight_partitions'));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format('CREATE TABLE %I PARTITION OF flight FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, month_start, month_start + INTERVAL '1 month');
+    FOR partition_index IN
+        SELECT child.relname AS name, parent.relname AS parent_name
+        FROM pg_index idx
+        JOIN pg_class child ON child.oid = idx.indexrelid
+        JOIN pg_inherits inh ON inh.inhrelid = idx.indexrelid
+        JOIN pg_class parent ON parent.oid = inh.inhparent
+        WHERE idx.indrelid = partition_name::regclass
+    LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', partition_index.name,
+                       partition_index.parent_name || '_' || suffix);
+    END LOOP;
+    RETURN TRUE;
+END
+$$;
+
+-- Moves the bookings on flights of the month of first_day to archive.booking, then detaches
+-- that month's partition into the archive schema. Returns whether the partition was attached.
+CREATE SCHEMA archive;
+CREATE TABLE archive.booking (LIKE booking INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+CREATE FUNCTION archive_flight_partition(first_day DATE) RETURNS BOOLEAN LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', first_day);
+    partition_name TEXT := 'flight_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('flight_partitions'));
+    IF to_regclass(partition_name) IS NULL THEN
+        RETURN FALSE;
+    END IF;
+    WITH archived AS (
+        DELETE FROM booking
+        WHERE flight_departure_time >= month_start AND flight_departure_time < month_start + INTERVAL '1 month'
+        RETURNING *
+    )
+    INSERT INTO archive.booking SELECT * FROM archived;
+    EXECUTE format('ALTER TABLE flight DETACH PARTITION %I', partition_name);
+    EXECUTE format('ALTER TABLE %I SET SCHEMA archive', partition_name);
+    RETURN TRUE;
+END
+$$;
+
+-- Partitions for every month that has flights, and for the year ahead
+DO $$
+DECLARE
+    month_start DATE;
+    last_month DATE;
+BEGIN
+    SELECT date_trunc('month', COALESCE(min(departure_time), CURRENT_DATE)),
+           date_trunc('month', GREATEST(COALESCE(max(departure_time), CURRENT_DATE), CURRENT_DATE + INTERVAL '12 months'))
+    INTO month_start, last_month
+    FROM flight_unpartitioned;
+    WHILE month_start <= last_month LOOP
+        PERFORM create_flight_partition(month_start);
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END
+$$;
+
+INSERT INTO flight (id, flight_number, airline, origin, destination, departure_time, arrival_time,
+                    duration_minutes, price, stops, aircraft_type, available_seats, updated_at)
+SELECT id, flight_number, airline, origin, destination, departure_time, arrival_time,
+       duration_minutes, price, stops, aircraft_type, available_seats, updated_at
+FROM flight_unpartitioned;
+DROP TABLE flight_unpartitioned;
+
+ALTER TABLE booking ADD CONSTRAINT fk_booking_flight FOREIGN KEY (flight_id, flight_departure_time)
+    REFERENCES flight(id, departure_time) ON DELETE RESTRICT ON UPDATE CASCADE;
+CREATE INDEX idx_booking_flight_departure ON booking(flight_departure_time);
+
+--rollback ALTER TABLE booking DROP CONSTRAINT fk_booking_flight;
+--rollback DROP INDEX idx_booking_flight_departure;
+--rollback DROP FUNCTION archive_flight_partition(DATE);
+--rollback DROP FUNCTION create_flight_partition(DATE);
+--rollback ALTER TABLE flight RENAME TO flight_partitioned;
+--rollback ALTER SEQUENCE flight_id_seq OWNED BY NONE;
+--rollback CREATE TABLE flight (LIKE flight_partitioned INCLUDING DEFAULTS INCLUDING CONSTRAINTS);
+--rollback INSERT INTO flight SELECT * FROM flight_partitioned;
+--rollback DROP TABLE flight_partitioned;
+--rollback ALTER TABLE flight ADD CONSTRAINT flight_pkey PRIMARY KEY (id);
+--rollback ALTER TABLE flight ADD CONSTRAINT uq_flight_instance UNIQUE (flight_number, departure_time);
+--rollback ALTER SEQUENCE flight_id_seq OWNED BY flight.id;
+--rollback CREATE INDEX idx_flight_search ON flight(origin, destination, departure_time, available_seats);
+--rollback CREATE INDEX idx_flight_departure ON flight(departure_time);
+--rollback CREATE INDEX idx_flight_updated_at ON flight(updated_at);
+--rollback ALTER TABLE booking ADD CONSTRAINT fk_booking_flight FOREIGN KEY (flight_id) REFERENCES flight(id) ON DELETE RESTRICT;
+--rollback ALTER TABLE booking DROP COLUMN flight_departure_time;
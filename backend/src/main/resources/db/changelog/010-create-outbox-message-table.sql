@@ -0,0 +1,22 @@
+--liquibase formatted sql
+
+--changeset travelapp:010-create-outbox-message-table
+-- Transactional outbox: one row per booking event and sink, inserted in the booking's own
+-- transaction and deleted once BookingOutboxDispatcher has delivered it. next_attempt_at is
+-- pushed forward while a dispatcher holds the row and after each failed attempt.
+-- The sequence hands out ids in blocks of 50 so inserts for group bookings can be batched.
+CREATE SEQUENCE outbox_message_id_seq INCREMENT BY 50;
+CREATE TABLE outbox_message (
+    id BIGINT PRIMARY KEY DEFAULT nextval('outbox_message_id_seq'),
+    booking_id UUID NOT NULL,
+    sink VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_error VARCHAR(500)
+);
+ALTER SEQUENCE outbox_message_id_seq OWNED BY outbox_message.id;
+CREATE INDEX idx_outbox_message_next_attempt ON outbox_message(next_attempt_at);
+
+--rollback DROP TABLE outbox_message;
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset travelapp:011-drop-redundant-booking-reference-index
+-- The UNIQUE constraint on booking_reference already has its own index, which serves lookups by
+-- reference; the second one only added work to every booking insert.
+DROP INDEX idx_booking_reference;
+
+--rollback CREATE INDEX idx_booking_reference ON booking(booking_reference);
@@ -0,0 +1,54 @@
+--liquibase formatted sql
+
+--changeset travelapp:012-archive-bookings-by-column-name splitStatements:false
+-- archive.booking was created LIKE booking, so its columns only line up with booking's by
+-- position for as long as both tables change together. Bookings are now archived by column
+-- name. Rule for later changesets: a column added to booking is added to archive.booking in
+-- the same changeset, and to both column lists below in a new CREATE OR REPLACE of this
+-- function; until then archiving leaves it out.
+CREATE OR REPLACE FUNCTION archive_flight_partition(first_day DATE) RETURNS BOOLEAN LANGUAGE plpgsql AS $$
+DECLARE
+    month_start DATE := date_trunc('month', first_day);
+    partition_name TEXT := 'flight_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('flight_partitions'));
+    IF to_regclass(partition_name) IS NULL THEN
+        RETURN FALSE;
+    END IF;
+    WITH archived AS (
+        DELETE FROM booking
+        WHERE flight_departure_time >= month_start AND flight_departure_time < month_start + INTERVAL '1 month'
+        RETURNING id, flight_id, flight_departure_time, booking_reference, passenger_name, passenger_email,
+                  passenger_phone, booking_date, status, seats, idempotency_key
+    )
+    INSERT INTO archive.booking (id, flight_id, flight_departure_time, booking_reference, passenger_name,
+                                 passenger_email, passenger_phone, booking_date, status, seats, idempotency_key)
+    SELECT id, flight_id, flight_departure_time, booking_reference, passenger_name, passenger_email,
+           passenger_phone, booking_date, status, seats, idempotency_key
+    FROM archived;
+    EXECUTE format('ALTER TABLE flight DETACH PARTITION %I', partition_name);
+    EXECUTE format('ALTER TABLE %I SET SCHEMA archive', partition_name);
+    RETURN TRUE;
+END
+$$;
+
+--rollback CREATE OR REPLACE FUNCTION archive_flight_partition(first_day DATE) RETURNS BOOLEAN LANGUAGE plpgsql AS $$
+--rollback DECLARE
+--rollback     month_start DATE := date_trunc('month', first_day);
+--rollback     partition_name TEXT := 'flight_' || to_char(month_start, 'YYYY_MM');
+--rollback BEGIN
+--rollback     PERFORM pg_advisory_xact_lock(hashtext('flight_partitions'));
+--rollback     IF to_regclass(partition_name) IS NULL THEN
+--rollback         RETURN FALSE;
+--rollback     END IF;
+--rollback     WITH archived AS (
+--rollback         DELETE FROM booking
+--rollback         WHERE flight_departure_time >= month_start AND flight_departure_time < month_start + INTERVAL '1 month'
+--rollback         RETURNING *
+--rollback     )
+--rollback     INSERT INTO archive.booking SELECT * FROM archived;
+--rollback     EXECUTE format('ALTER TABLE flight DETACH PARTITION %I', partition_name);
+--rollback     EXECUTE format('ALTER TABLE %I SET SCHEMA archive', partition_name);
+--rollback     RETURN TRUE;
+--rollback END
+--rollback $$;
@@ -0,0 +1,222 @@
+package com.travelapp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import com.travelapp.repository.BookingRepository;
+import com.travelapp.repository.FlightRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Drives the running application over HTTP once with platform-thread request handling and once
+ * with virtual threads, and logs throughput and latency percentiles for both.
+ *
+ * Each client books a seat and then looks the booking up, so every request blocks on JDBC.
+ * Requests that give up waiting for a pooled connection are counted as errors; that is the
+ * back-pressure the pool is configured for, so the test only fails if seats were oversold.
+ * Tagged {@code load}: excluded from {@code test}, run with {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+class RequestThreadingLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestThreadingLoadTest.class);
+
+    private static final int CLIENTS = 200;
+    private static final int ITERATIONS = 10;
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int FLIGHTS = 10;
+
+    private static final String CREATE_BOOKING = """
+        mutation($input: BookingInput!) {
+          createBooking(input: $input) { success message booking { bookingReference } }
+        }
+        """;
+    private static final String FIND_BOOKING = """
+        query($reference: String!) { booking(bookingReference: $reference) { bookingReference flight { id } } }
+        """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        for (LoadResult result : List.of(platform, virtual)) {
+            log.info("{} threads: {} req/sec, p50 {} ms, p99 {} ms, max {} ms, {} errors", result.mode(),
+                     Math.round(result.throughput()), "%.1f".formatted(result.percentileMillis(50)),
+                     "%.1f".formatted(result.percentileMillis(99)), "%.1f".formatted(result.percentileMillis(100)),
+                     result.errors());
+        }
+
+        assertThat(platform.sortedLatencies()).isNotEmpty();
+        assertThat(virtual.sortedLatencies()).isNotEmpty();
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        // Passed as arguments so they take precedence over the application properties files
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TravelAppApplication.class)
+                 .profiles("test")
+                 .run("--server.port=0",
+                      "--spring.threads.virtual.enabled=" + virtualThreads,
+                      "--travelapp.graphql.rate-limit.requests-per-second=0",
+                      "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";LOCK_TIMEOUT=10000")) {
+            assertThat(context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class))
+                .isEqualTo(virtualThreads);
+            URI endpoint = URI.create("http://localhost:"
+                                      + context.getEnvironment().getProperty("local.server.port") + "/graphql");
+            List<Long> flightIds = createFlights(context.getBean(FlightRepository.class));
+
+            try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+                drive(client, endpoint, flightIds, WARMUP_ITERATIONS, mode);
+                LoadResult result = drive(client, endpoint, flightIds, ITERATIONS, mode);
+
+                long bookings = context.getBean(BookingRepository.class).count();
+                int seatsLeft = context.getBean(FlightRepository.class).findAllById(flightIds).stream()
+                    .mapToInt(Flight::getAvailableSeats)
+                    .sum();
+                assertThat(seatsLeft).isEqualTo(FLIGHTS * seatsPerFlight() - bookings);
+                return result;
+            }
+        }
+    }
+
+    private LoadResult drive(HttpClient client, URI endpoint, List<Long> flightIds, int iterations, String mode)
+        throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        int[] errors = new int[CLIENTS];
+
+        long startedAt;
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                int clientIndex = i;
+                Long flightId = flightIds.get(i % flightIds.size());
+                futures.add(clients.submit(() -> {
+                    start.await();
+                    long[] latencies = new long[iterations * 2];
+                    for (int n = 0; n < iterations; n++) {
+                        long requestStart = System.nanoTime();
+                        JsonNode created = post(client, endpoint, CREATE_BOOKING, Map.of("input", Map.of(
+                            "flightId", flightId,
+                            "passengerName", "Load Test",
+                            "passengerEmail", "load@example.com",
+                            "passengerPhone", "4155550123")));
+                        latencies[n * 2] = System.nanoTime() - requestStart;
+
+                        JsonNode booking = created == null ? null : created.at("/data/createBooking/booking");
+                        if (booking == null || booking.isMissingNode() || booking.isNull()) {
+                            errors[clientIndex]++;
+                            latencies[n * 2 + 1] = -1;
+                            continue;
+                        }
+                        requestStart = System.nanoTime();
+                        JsonNode found = post(client, endpoint, FIND_BOOKING,
+                            Map.of("reference", booking.get("bookingReference").asText()));
+                        latencies[n * 2 + 1] = System.nanoTime() - requestStart;
+                        if (found == null || found.at("/data/booking/flight/id").isMissingNode()) {
+                            errors[clientIndex]++;
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+            startedAt = System.nanoTime();
+            start.countDown();
+        }
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        List<Long> latencies = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            for (long latency : future.get()) {
+                if (latency >= 0) {
+                    latencies.add(latency);
+                }
+            }
+        }
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new LoadResult(mode, sorted, seconds, Arrays.stream(errors).sum());
+    }
+
+    private JsonNode post(HttpClient client, URI endpoint, String document, Map<String, Object> variables)
+        throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                objectMapper.writeValueAsString(Map.of("query", document, "variables", variables))))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.hasNonNull("errors") ? null : body;
+    }
+
+    private List<Long> createFlights(FlightRepository flightRepository) {
+        LocalDateTime departure = LocalDateTime.now().plusDays(30).withNano(0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < FLIGHTS; i++) {
+            Flight flight = new Flight();
+            flight.setFlightNumber("UA%04d".formatted(1000 + i));
+            flight.setAirline("United Airlines");
+            flight.setOrigin("SFO");
+            flight.setDestination("JFK");
+            flight.setDepartureTime(departure.plusHours(i));
+            flight.setArrivalTime(departure.plusHours(i).plusMinutes(330));
+            flight.setDurationMinutes(330);
+            flight.setPrice(Money.of(new BigDecimal("350.00"), Flight.CURRENCY));
+            flight.setStops(0);
+            flight.setAircraftType("Boeing 737");
+            flight.setAvailableSeats(seatsPerFlight());
+            ids.add(flightRepository.save(flight).getId());
+        }
+        return ids;
+    }
+
+    private static int seatsPerFlight() {
+        return CLIENTS / FLIGHTS * (ITERATIONS + WARMUP_ITERATIONS);
+    }
+
+    private record LoadResult(String mode, long[] sortedLatencies, double seconds, int errors) {
+
+        double throughput() {
+            return sortedLatencies.length / seconds;
+        }
+
+        double percentileMillis(int percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
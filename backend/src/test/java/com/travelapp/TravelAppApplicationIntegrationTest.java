@@ -10,7 +10,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
+@SpringBootTest(properties = "travelapp.booking.reference-key=7243029185364871")
 @Testcontainers
 class TravelAppApplicationIntegrationTest {
 
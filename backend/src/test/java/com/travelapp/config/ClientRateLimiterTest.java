@@ -0,0 +1,89 @@
+package com.travelapp.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final ClientRateLimiter rateLimiter = new ClientRateLimiter(2, 3, 100, nanos::get);
+
+    @Test
+    void tryAcquire_BurstUsed_WaitsForRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isEqualTo(Duration.ofMillis(500));
+
+        nanos.addAndGet(Duration.ofMillis(500).toNanos());
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_OtherClient_HasOwnBucket() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("10.0.0.1");
+        }
+
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isPositive();
+        assertThat(rateLimiter.tryAcquire("10.0.0.2")).isZero();
+    }
+
+    @Test
+    void tryAcquire_LongIdle_RefillsOnlyUpToBurst() {
+        rateLimiter.tryAcquire("10.0.0.1");
+        nanos.addAndGet(Duration.ofHours(1).toNanos());
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire("10.0.0.1")).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire("10.0.0.1")).isPositive();
+    }
+
+    @Test
+    void filter_OutOfTokens_Answers429WithoutCallingChain() throws Exception {
+        GraphQlRateLimitFilter filter = new GraphQlRateLimitFilter(rateLimiter, "/graphql", new SimpleMeterRegistry());
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(graphQlRequest(), new MockHttpServletResponse(), chain);
+            assertThat(chain.getRequest()).isNotNull();
+        }
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(graphQlRequest(), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(response.getContentAsString()).contains("Too many requests");
+    }
+
+    @Test
+    void filter_Disabled_PassesEveryRequest() throws Exception {
+        ClientRateLimiter disabled = new ClientRateLimiter(0, 0, 100, nanos::get);
+        GraphQlRateLimitFilter filter = new GraphQlRateLimitFilter(disabled, "/graphql", new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(graphQlRequest(), new MockHttpServletResponse(), chain);
+            assertThat(chain.getRequest()).isNotNull();
+        }
+    }
+
+    private static MockHttpServletRequest graphQlRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/graphql");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
@@ -0,0 +1,85 @@
+package com.travelapp.config;
+
+import com.travelapp.service.BookingService;
+import com.travelapp.service.FlightService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application with a replica configured. The replica pool points at the primary's
+ * in-memory database, so the schema Hibernate creates there is visible through both. The flight
+ * snapshot is never fresh, so searches go to the database.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:replicated",
+    "travelapp.datasource.replicas.urls=jdbc:h2:mem:replicated",
+    "travelapp.flight-snapshot.max-staleness=PT0S"
+})
+@ActiveProfiles("test")
+class ReadReplicaConfigTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FlightService flightService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void readOnlyServiceCall_IsServedByReplica() {
+        double replicaReads = reads("replica");
+        double primaryReads = reads("primary");
+
+        assertThat(bookingService.findByBookingReference("ZZ9ZZ9")).isEmpty();
+
+        assertThat(reads("replica")).isEqualTo(replicaReads + 1);
+        assertThat(reads("primary")).isEqualTo(primaryReads);
+    }
+
+    @Test
+    void searchMiss_IsServedByReplica() {
+        double replicaReads = reads("replica");
+        double primaryReads = reads("primary");
+
+        assertThat(flightService.searchFlights("SFO", "JFK", "2030-01-15", 1, Set.of("flightNumber"))).isEmpty();
+
+        assertThat(reads("replica")).isEqualTo(replicaReads + 1);
+        assertThat(reads("primary")).isEqualTo(primaryReads);
+    }
+
+    @Test
+    void bookingLookupMiss_IsServedByReplica() {
+        double replicaReads = reads("replica");
+        double primaryReads = reads("primary");
+
+        assertThat(bookingService.findViewByBookingReference("ZZ8ZZ8")).isEmpty();
+
+        assertThat(reads("replica")).isEqualTo(replicaReads + 1);
+        assertThat(reads("primary")).isEqualTo(primaryReads);
+    }
+
+    @Test
+    void idempotencyKeyLookup_IsServedByPrimary() {
+        double replicaReads = reads("replica");
+        double primaryReads = reads("primary");
+
+        assertThat(bookingService.findByIdempotencyKey("retried-key")).isEmpty();
+
+        // A read-write transaction never asks the routing data source for a connection
+        assertThat(reads("replica")).isEqualTo(replicaReads);
+        assertThat(reads("primary")).isEqualTo(primaryReads);
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("travelapp.datasource.reads").tag("target", target).counter().count();
+    }
+}
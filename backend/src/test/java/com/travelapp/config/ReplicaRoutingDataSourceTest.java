@@ -0,0 +1,141 @@
+package com.travelapp.config;
+
+import com.travelapp.service.FlightSeatsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routes through the same proxy as {@link ReadReplicaConfig}, with two in-memory H2 databases
+ * standing in for the primary and a replica.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicBoolean replicaDown = new AtomicBoolean();
+    private final AtomicReference<Duration> replicaLag = new AtomicReference<>(Duration.ZERO);
+    private final ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1), 100);
+
+    private ReplicaRoutingDataSource routing;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("primary");
+        DataSource replica = new DelegatingDataSource(h2("replica")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (replicaDown.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        };
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica);
+        routing = new ReplicaRoutingDataSource(primary, replicas, readYourWrites, Duration.ofSeconds(5),
+            connection -> replicaLag.get(), new SimpleMeterRegistry());
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void healthyReplica_TakesReadsRightAfterStartup() {
+        assertThat(readOnly()).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void readOnlyTransactions_GoToReplica_OthersToPrimary() {
+        assertThat(readOnly()).isEqualTo("REPLICA");
+        assertThat(readWrite()).isEqualTo("PRIMARY");
+        assertThat(database()).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void replicaDown_ReadsGoToPrimaryUntilCheckFindsItAgain() {
+        replicaDown.set(true);
+        assertThat(readOnly()).isEqualTo("PRIMARY");
+
+        replicaDown.set(false);
+        assertThat(readOnly()).isEqualTo("PRIMARY");
+
+        routing.checkReplicas();
+        assertThat(readOnly()).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void laggingReplica_SkippedUntilCaughtUp() {
+        replicaLag.set(Duration.ofSeconds(30));
+        routing.checkReplicas();
+        assertThat(readOnly()).isEqualTo("PRIMARY");
+
+        replicaLag.set(Duration.ofMillis(200));
+        routing.checkReplicas();
+        assertThat(readOnly()).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void clientThatBooked_ReadsFromPrimary() throws Exception {
+        AtomicReference<String> writerRead = new AtomicReference<>();
+        AtomicReference<String> otherRead = new AtomicReference<>();
+
+        asClient("203.0.113.7", () -> {
+            readYourWrites.onSeatsChanged(new FlightSeatsChangedEvent(1L, "SFO", "JFK", LocalDate.now()));
+            writerRead.set(readOnly());
+        });
+        asClient("203.0.113.8", () -> otherRead.set(readOnly()));
+
+        assertThat(writerRead.get()).isEqualTo("PRIMARY");
+        assertThat(otherRead.get()).isEqualTo("REPLICA");
+    }
+
+    private String readOnly() {
+        return readOnly.execute(status -> database());
+    }
+
+    private String readWrite() {
+        return readWrite.execute(status -> database());
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private void asClient(String address, Runnable action) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        readYourWrites.doFilter(request, new MockHttpServletResponse(), (req, res) -> action.run());
+    }
+
+    private static DataSource h2(String name) {
+        // H2 is only on the test runtime classpath, so it is reached through its JDBC URL
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    }
+}
@@ -0,0 +1,291 @@
+package com.travelapp.controller;
+
+import com.travelapp.model.Booking;
+import com.travelapp.model.BookingStatus;
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import com.travelapp.repository.BookingRepository;
+import com.travelapp.repository.FlightRepository;
+import com.travelapp.service.BookingReferenceGenerator;
+import com.travelapp.service.BookingsArchivedEvent;
+import com.travelapp.service.FlightSnapshotService;
+import com.travelapp.support.SqlStatementRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.travelapp.support.SqlStatementRecorder")
+@AutoConfigureGraphQlTester
+@ActiveProfiles("test")
+class BookingControllerTest {
+
+    private static final String BOOKINGS_QUERY = """
+        query {
+          first: booking(bookingReference: "AAA111") { bookingReference flight { flightNumber } }
+          second: booking(bookingReference: "BBB222") { bookingReference flight { flightNumber } }
+          third: booking(bookingReference: "CCC333") { bookingReference flight { flightNumber } }
+        }
+        """;
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private FlightSnapshotService flightSnapshot;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @SpyBean
+    private BookingReferenceGenerator referenceGenerator;
+
+    @BeforeEach
+    void setUp() {
+        Flight united = flightRepository.save(createFlight("UA1234"));
+        Flight delta = flightRepository.save(createFlight("DL5678"));
+        bookingRepository.saveAll(List.of(
+            createBooking("AAA111", united),
+            createBooking("BBB222", delta),
+            createBooking("CCC333", united)
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        flightRepository.deleteAll();
+    }
+
+    @Test
+    void booking_SeveralInOneDocument_BatchesFlightLoads() {
+        eventPublisher.publishEvent(new BookingsArchivedEvent(List.of("AAA111", "BBB222", "CCC333")));
+        graphQlTester.document(BOOKINGS_QUERY).execute();
+        SqlStatementRecorder.clear();
+
+        GraphQlTester.Response response = graphQlTester.document(BOOKINGS_QUERY).execute();
+
+        response.path("first.flight.flightNumber").entity(String.class).isEqualTo("UA1234");
+        response.path("second.flight.flightNumber").entity(String.class).isEqualTo("DL5678");
+        response.path("third.flight.flightNumber").entity(String.class).isEqualTo("UA1234");
+        // graphql-java 21 dispatches data loaders once the last root field has been fetched but
+        // before it completes, so the last booking's flight is loaded in a batch of its own
+        List<String> statements = SqlStatementRecorder.statements().stream()
+            .map(sql -> sql.toLowerCase(Locale.ROOT))
+            .toList();
+        assertThat(statements).hasSize(2)
+            .allSatisfy(sql -> assertThat(sql).contains(" from flight ").containsPattern("\\bin\\s*\\("));
+        assertThat(statements.get(0)).containsPattern("\\bin\\s*\\(\\?\\s*,\\s*\\?\\)");
+    }
+
+    @Test
+    void booking_LookedUpAgain_ServedFromCacheWithFlightFromSnapshot() {
+        eventPublisher.publishEvent(new BookingsArchivedEvent(List.of("AAA111")));
+        flightSnapshot.refresh();
+        String query = "query { booking(bookingReference: \"AAA111\") { passengerName flight { flightNumber } } }";
+        SqlStatementRecorder.clear();
+
+        graphQlTester.document(query).execute()
+            .path("booking.flight.flightNumber").entity(String.class).isEqualTo("UA1234");
+
+        assertThat(SqlStatementRecorder.statements()).singleElement()
+            .satisfies(sql -> assertThat(sql.toLowerCase(Locale.ROOT)).contains(" from booking ", " join flight "));
+
+        SqlStatementRecorder.clear();
+        GraphQlTester.Response response = graphQlTester.document(query).execute();
+
+        response.path("booking.passengerName").entity(String.class).isEqualTo("Jane Doe");
+        response.path("booking.flight.flightNumber").entity(String.class).isEqualTo("UA1234");
+        assertThat(SqlStatementRecorder.statements()).isEmpty();
+    }
+
+    @Test
+    void createBooking_InvalidInput_RecordsInvalidOutcome() {
+        long before = bookingTimerCount("invalid");
+
+        graphQlTester.document("""
+                mutation($flightId: ID!) {
+                  createBooking(input: {flightId: $flightId, passengerName: "J", passengerEmail: "jane@example.com",
+                                        passengerPhone: "1234567890"}) { success }
+                }
+                """)
+            .variable("flightId", flightRepository.findAll().get(0).getId())
+            .execute()
+            .path("createBooking.success").entity(Boolean.class).isEqualTo(false);
+
+        assertThat(bookingTimerCount("invalid")).isEqualTo(before + 1);
+    }
+
+    @Test
+    void createBooking_RetriedWithSameKey_ReturnsOriginalBooking() {
+        Long flightId = flightRepository.findAll().get(0).getId();
+        String mutation = """
+            mutation($flightId: ID!) {
+              createBooking(input: {flightId: $flightId, passengerName: "Jane Doe", passengerEmail: "jane@example.com",
+                                    passengerPhone: "1234567890", seats: 2, idempotencyKey: "checkout-42"}) {
+                success
+                booking { bookingReference }
+              }
+            }
+            """;
+
+        String first = graphQlTester.document(mutation).variable("flightId", flightId).execute()
+            .path("createBooking.booking.bookingReference").entity(String.class).get();
+        SqlStatementRecorder.clear();
+        String retried = graphQlTester.document(mutation).variable("flightId", flightId).execute()
+            .path("createBooking.booking.bookingReference").entity(String.class).get();
+
+        assertThat(retried).isEqualTo(first);
+        assertThat(SqlStatementRecorder.statements()).isEmpty();
+        assertThat(bookingRepository.count()).isEqualTo(4);
+        assertThat(flightRepository.findById(flightId).orElseThrow().getAvailableSeats()).isEqualTo(148);
+    }
+
+    @Test
+    void createBooking_ReferenceTakenByOlderBooking_BooksWithNextReference() {
+        Flight united = flightRepository.findAll().stream()
+            .filter(flight -> flight.getFlightNumber().equals("UA1234"))
+            .findFirst().orElseThrow();
+        // AAA111 stands for a random reference from before the reference sequence
+        doReturn("AAA111").doCallRealMethod().when(referenceGenerator).next();
+
+        GraphQlTester.Response response = graphQlTester.document("""
+                mutation($flightId: ID!) {
+                  createBooking(input: {flightId: $flightId, passengerName: "Jane Doe", passengerEmail: "jane@example.com",
+                                        passengerPhone: "1234567890"}) {
+                    success
+                    booking { bookingReference }
+                  }
+                }
+                """)
+            .variable("flightId", united.getId())
+            .execute();
+
+        response.path("createBooking.success").entity(Boolean.class).isEqualTo(true);
+        response.path("createBooking.booking.bookingReference").entity(String.class)
+            .satisfies(reference -> assertThat(reference).matches("^[A-Z0-9]{6}$").isNotEqualTo("AAA111"));
+        assertThat(bookingRepository.count()).isEqualTo(4);
+        // The rejected attempt's seat was rolled back with it
+        assertThat(flightRepository.findById(united.getId()).orElseThrow().getAvailableSeats()).isEqualTo(149);
+    }
+
+    @Test
+    void createBookings_Group_InsertsBookingsInOneBatch() {
+        Flight united = flightRepository.findAll().stream()
+            .filter(flight -> flight.getFlightNumber().equals("UA1234"))
+            .findFirst().orElseThrow();
+        List<Map<String, Object>> inputs = IntStream.range(0, 5)
+            .<Map<String, Object>>mapToObj(i -> Map.of(
+                "flightId", united.getId(),
+                "passengerName", "Passenger " + i,
+                "passengerEmail", "passenger" + i + "@example.com",
+                "passengerPhone", "1234567890"))
+            .toList();
+        SqlStatementRecorder.clear();
+
+        graphQlTester.document("""
+                mutation($inputs: [BookingInput!]!) {
+                  createBookings(inputs: $inputs) { success booking { flight { availableSeats } } }
+                }
+                """)
+            .variable("inputs", inputs)
+            .execute()
+            .path("createBookings[*].success").entityList(Boolean.class).containsExactly(true, true, true, true, true)
+            .path("createBookings[0].booking.flight.availableSeats").entity(Integer.class).isEqualTo(145);
+
+        List<String> statements = SqlStatementRecorder.statements().stream()
+            .map(sql -> sql.toLowerCase(Locale.ROOT))
+            .toList();
+        assertThat(statements).filteredOn(sql -> sql.startsWith("insert into booking")).hasSize(1);
+        assertThat(statements).filteredOn(sql -> sql.startsWith("update flight")).hasSize(1);
+        assertThat(bookingRepository.count()).isEqualTo(8);
+    }
+
+    @Test
+    void createBookings_OverCostLimit_RejectedBeforeAnyQuery() {
+        Long flightId = flightRepository.findAll().get(0).getId();
+        List<Map<String, Object>> inputs = IntStream.range(0, 100)
+            .<Map<String, Object>>mapToObj(i -> Map.of(
+                "flightId", flightId,
+                "passengerName", "Passenger " + i,
+                "passengerEmail", "passenger" + i + "@example.com",
+                "passengerPhone", "1234567890"))
+            .toList();
+        SqlStatementRecorder.clear();
+
+        graphQlTester.document("""
+                mutation($inputs: [BookingInput!]!) {
+                  createBookings(inputs: $inputs) { success booking { bookingReference } }
+                }
+                """)
+            .variable("inputs", inputs)
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).contains("complexity")));
+
+        assertThat(SqlStatementRecorder.statements()).isEmpty();
+        assertThat(bookingRepository.count()).isEqualTo(3);
+    }
+
+    private long bookingTimerCount(String outcome) {
+        var timer = meterRegistry.find(BookingController.CREATE_TIMER).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private Flight createFlight(String flightNumber) {
+        LocalDateTime departure = LocalDateTime.now().plusDays(30).withNano(0);
+        Flight flight = new Flight();
+        flight.setFlightNumber(flightNumber);
+        flight.setAirline("United Airlines");
+        flight.setOrigin("SFO");
+        flight.setDestination("JFK");
+        flight.setDepartureTime(departure);
+        flight.setArrivalTime(departure.plusMinutes(330));
+        flight.setDurationMinutes(330);
+        flight.setPrice(Money.of(new BigDecimal("350.00"), Flight.CURRENCY));
+        flight.setStops(0);
+        flight.setAircraftType("Boeing 737");
+        flight.setAvailableSeats(150);
+        return flight;
+    }
+
+    private Booking createBooking(String reference, Flight flight) {
+        Booking booking = new Booking();
+        booking.setBookingReference(reference);
+        booking.setFlight(flight);
+        booking.setPassengerName("Jane Doe");
+        booking.setPassengerEmail("jane@example.com");
+        booking.setPassengerPhone("1234567890");
+        booking.setStatus(BookingStatus.CONFIRMED);
+        return booking;
+    }
+}
@@ -0,0 +1,295 @@
+package com.travelapp.controller;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import com.travelapp.repository.BookingRepository;
+import com.travelapp.repository.FlightRepository;
+import com.travelapp.service.FlightSearchCache;
+import com.travelapp.service.FlightSnapshotService;
+import com.travelapp.service.RouteGraphService;
+import com.travelapp.support.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.graphql.tester.AutoConfigureGraphQlTester;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.graphql.test.tester.GraphQlTester;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties =
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.travelapp.support.SqlStatementRecorder")
+@AutoConfigureGraphQlTester
+@ActiveProfiles("test")
+class FlightControllerTest {
+
+    private static final String FLIGHTS_QUERY = """
+        query Flights($date: String!, $sort: FlightSort, $filter: FlightFilter, $first: Int, $after: String) {
+          flights(origin: "SFO", destination: "JFK", departureDate: $date, passengers: 2,
+                  sort: $sort, filter: $filter, first: $first, after: $after) {
+            edges { cursor node { flightNumber price } }
+            pageInfo { hasNextPage endCursor }
+          }
+        }
+        """;
+
+    @Autowired
+    private GraphQlTester graphQlTester;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private FlightSearchCache searchCache;
+
+    @Autowired
+    private RouteGraphService routeGraphService;
+
+    @Autowired
+    private FlightSnapshotService flightSnapshot;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(30);
+        flightRepository.saveAll(List.of(
+            createFlight("UA1234", "United Airlines", "350.00", 0, 8, 150),
+            createFlight("DL5678", "Delta Air Lines", "325.00", 0, 10, 180),
+            createFlight("AA9012", "American Airlines", "375.00", 0, 14, 200),
+            createFlight("UA2345", "United Airlines", "280.00", 1, 6, 150),
+            createFlight("DL6789", "Delta Air Lines", "265.00", 1, 12, 1),
+            createFlight("SW1111", "Southwest Airlines", "325.00", 0, 16, 175)
+        ));
+        flightSnapshot.refresh();
+        routeGraphService.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        flightRepository.deleteAll();
+        searchCache.evictRouteDay("SFO", "JFK", date);
+    }
+
+    @Test
+    void flights_SortedByPrice_PagesThroughAllSeatedFlights() {
+        List<String> seen = new ArrayList<>();
+        String after = null;
+        boolean hasNextPage = true;
+        while (hasNextPage) {
+            GraphQlTester.Response response = graphQlTester.document(FLIGHTS_QUERY)
+                .variable("date", date.toString())
+                .variable("sort", "PRICE")
+                .variable("first", 2)
+                .variable("after", after)
+                .execute();
+            seen.addAll(response.path("flights.edges[*].node.flightNumber").entityList(String.class).get());
+            hasNextPage = response.path("flights.pageInfo.hasNextPage").entity(Boolean.class).get();
+            after = response.path("flights.pageInfo.endCursor").entity(String.class).get();
+        }
+
+        // DL6789 has a single seat left and can't take two passengers; equal prices tie-break on id
+        assertThat(seen).containsExactly("UA2345", "DL5678", "SW1111", "UA1234", "AA9012");
+    }
+
+    @Test
+    void flights_WithFilter_AppliesPriceStopsAndAirline() {
+        graphQlTester.document(FLIGHTS_QUERY)
+            .variable("date", date.toString())
+            .variable("filter", Map.of(
+                "maxPrice", 360.0,
+                "maxStops", 0,
+                "airlines", List.of("United Airlines", "Delta Air Lines")))
+            .execute()
+            .path("flights.edges[*].node.flightNumber")
+            .entityList(String.class)
+            .containsExactly("UA1234", "DL5678");
+    }
+
+    @Test
+    void flights_CursorFromOtherSort_ReturnsError() {
+        String cursor = graphQlTester.document(FLIGHTS_QUERY)
+            .variable("date", date.toString())
+            .variable("sort", "PRICE")
+            .variable("first", 1)
+            .execute()
+            .path("flights.pageInfo.endCursor")
+            .entity(String.class)
+            .get();
+
+        graphQlTester.document(FLIGHTS_QUERY)
+            .variable("date", date.toString())
+            .variable("sort", "DURATION")
+            .variable("after", cursor)
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors).isNotEmpty());
+    }
+
+    @Test
+    void searchFlights_ManyAliases_RejectedOverCostLimit() {
+        String aliases = IntStream.range(0, 30)
+            .mapToObj(i -> "s" + i + ": searchFlights(origin: \"SFO\", destination: \"JFK\", departureDate: $date)"
+                           + " { flightNumber airline price availableSeats }")
+            .collect(Collectors.joining("\n"));
+
+        graphQlTester.document("query($date: String!) {\n" + aliases + "\n}")
+            .variable("date", date.toString())
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).contains("complexity")));
+    }
+
+    @Test
+    void introspection_NestedPastMaxDepth_Rejected() {
+        String typeRef = "ofType { ".repeat(16) + "name" + " }".repeat(16);
+
+        graphQlTester.document("{ __schema { types { fields { type { " + typeRef + " } } } } }")
+            .execute()
+            .errors()
+            .satisfy(errors -> assertThat(errors).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).contains("depth")));
+    }
+
+    @Test
+    void searchFlights_FromSnapshot_ShowsBookedSeatsAfterRefresh() {
+        String query = """
+            query($date: String!) {
+              searchFlights(origin: "sfo", destination: "jfk", departureDate: $date) { flightNumber availableSeats }
+            }
+            """;
+        assertThat(flightSnapshot.isFresh()).isTrue();
+        graphQlTester.document(query).variable("date", date.toString()).execute()
+            .path("searchFlights[*].flightNumber").entityList(String.class)
+            .containsExactly("UA2345", "UA1234", "DL5678", "DL6789", "AA9012", "SW1111");
+
+        Long soldOut = flightRepository.findAll().stream()
+            .filter(flight -> flight.getFlightNumber().equals("DL6789"))
+            .findFirst().orElseThrow().getId();
+        graphQlTester.document("""
+                mutation($flightId: ID!) {
+                  createBooking(input: {flightId: $flightId, passengerName: "Jane Doe",
+                                        passengerEmail: "jane@example.com", passengerPhone: "1234567890"}) { success }
+                }
+                """)
+            .variable("flightId", soldOut)
+            .execute()
+            .path("createBooking.success").entity(Boolean.class).isEqualTo(true);
+        flightSnapshot.refresh();
+
+        graphQlTester.document(query).variable("date", date.toString()).execute()
+            .path("searchFlights[*].flightNumber").entityList(String.class)
+            .containsExactly("UA2345", "UA1234", "DL5678", "AA9012", "SW1111");
+        graphQlTester.document("query($id: ID!) { flight(id: $id) { flightNumber availableSeats } }")
+            .variable("id", soldOut)
+            .execute()
+            .path("flight.availableSeats").entity(Integer.class).isEqualTo(0);
+    }
+
+    @Test
+    void flight_NotInSnapshot_ReadsOnlySelectedColumns() {
+        Flight added = flightRepository.save(createFlight("AS1000", "Alaska Airlines", "199.00", 0, 18, 100));
+        SqlStatementRecorder.clear();
+
+        graphQlTester.document("query($id: ID!) { flight(id: $id) { flightNumber } }")
+            .variable("id", added.getId())
+            .execute()
+            .path("flight.flightNumber").entity(String.class).isEqualTo("AS1000");
+
+        assertThat(SqlStatementRecorder.statements()).singleElement()
+            .satisfies(sql -> assertThat(sql.toLowerCase(Locale.ROOT))
+                .contains("flight_number")
+                .doesNotContain("airline", "aircraft_type"));
+    }
+
+    @Test
+    void fareCalendar_ReturnsCheapestFarePerDayWithFlights() {
+        Flight nextWeek = createFlight("UA7777", "United Airlines", "299.00", 0, 9, 100);
+        nextWeek.setDepartureTime(date.plusDays(7).atTime(9, 0));
+        nextWeek.setArrivalTime(date.plusDays(7).atTime(17, 30));
+        flightRepository.save(nextWeek);
+        flightSnapshot.refresh();
+
+        GraphQlTester.Response response = graphQlTester.document("""
+                query($from: String!, $to: String!) {
+                  fareCalendar(origin: "SFO", destination: "JFK", from: $from, to: $to, passengers: 2) {
+                    date
+                    lowestPrice
+                    flights
+                  }
+                }
+                """)
+            .variable("from", date.toString())
+            .variable("to", date.plusDays(13).toString())
+            .execute();
+
+        // DL6789 at 265.00 has a single seat
+        response.path("fareCalendar[*].date").entityList(String.class)
+            .containsExactly(date.toString(), date.plusDays(7).toString());
+        response.path("fareCalendar[*].lowestPrice").entityList(Double.class).containsExactly(280.0, 299.0);
+        response.path("fareCalendar[*].flights").entityList(Integer.class).containsExactly(5, 1);
+    }
+
+    @Test
+    void searchItineraries_ReturnsDirectAndConnectingTrips() {
+        Flight toMiami = createFlight("AA7777", "American Airlines", "120.00", 0, 19, 50);
+        toMiami.setOrigin("JFK");
+        toMiami.setDestination("MIA");
+        toMiami.setArrivalTime(toMiami.getDepartureTime().plusHours(3));
+        flightRepository.save(toMiami);
+        flightSnapshot.refresh();
+        routeGraphService.refresh();
+
+        GraphQlTester.Response response = graphQlTester.document("""
+                query($date: String!) {
+                  searchItineraries(origin: "SFO", destination: "MIA", departureDate: $date, passengers: 2) {
+                    connections
+                    durationMinutes
+                    totalPrice
+                    legs { flightNumber }
+                  }
+                }
+                """)
+            .variable("date", date.toString())
+            .execute();
+
+        // Both land with 45 minutes to 6 hours to spare; the shorter trip comes first.
+        // UA2345 lands too early, AA9012 and SW1111 too late, DL6789 has a single seat.
+        response.path("searchItineraries[*].legs[*].flightNumber").entityList(String.class)
+            .containsExactly("DL5678", "AA7777", "UA1234", "AA7777");
+        response.path("searchItineraries[0].connections").entity(Integer.class).isEqualTo(1);
+        response.path("searchItineraries[0].totalPrice").entity(Double.class).isEqualTo(445.0);
+    }
+
+    private Flight createFlight(String flightNumber, String airline, String price, int stops, int hour, int seats) {
+        Flight flight = new Flight();
+        flight.setFlightNumber(flightNumber);
+        flight.setAirline(airline);
+        flight.setOrigin("SFO");
+        flight.setDestination("JFK");
+        flight.setDepartureTime(date.atTime(hour, 0));
+        flight.setArrivalTime(date.atTime(hour, 0).plusMinutes(330));
+        flight.setDurationMinutes(330);
+        flight.setPrice(Money.of(new BigDecimal(price), Flight.CURRENCY));
+        flight.setStops(stops);
+        flight.setAircraftType("Boeing 737");
+        flight.setAvailableSeats(seats);
+        return flight;
+    }
+}
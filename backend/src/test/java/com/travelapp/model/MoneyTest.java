@@ -0,0 +1,52 @@
+package com.travelapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MoneyTest {
+
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    @Test
+    void of_ExactAmount_HoldsMinorUnits() {
+        Money price = Money.of(new BigDecimal("325.5"), Money.USD);
+
+        assertThat(price.minorUnits()).isEqualTo(32_550);
+        assertThat(price.toBigDecimal()).isEqualTo(new BigDecimal("325.50"));
+        assertThat(price.toDouble()).isEqualTo(325.5);
+        assertThat(Money.of(new BigDecimal("1200"), JPY).toDouble()).isEqualTo(1200.0);
+    }
+
+    @Test
+    void of_FractionOfMinorUnit_ThrowsException() {
+        assertThatThrownBy(() -> Money.of(new BigDecimal("325.005"), Money.USD))
+            .isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void floor_FractionOfMinorUnit_RoundsDown() {
+        assertThat(Money.floor(new BigDecimal("325.009"), Money.USD)).isEqualTo(Money.ofMinor(32_500, Money.USD));
+    }
+
+    @Test
+    void plusAndCompareTo_SameCurrency_UseMinorUnits() {
+        Money cheap = Money.ofMinor(15_000, Money.USD);
+        Money dear = Money.ofMinor(29_999, Money.USD);
+
+        assertThat(cheap.plus(dear)).isEqualTo(Money.ofMinor(44_999, Money.USD));
+        assertThat(cheap).isLessThan(dear);
+    }
+
+    @Test
+    void plusAndCompareTo_OtherCurrency_ThrowsException() {
+        Money dollars = Money.ofMinor(100, Money.USD);
+        Money yen = Money.ofMinor(100, JPY);
+
+        assertThatThrownBy(() -> dollars.plus(yen)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> dollars.compareTo(yen)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
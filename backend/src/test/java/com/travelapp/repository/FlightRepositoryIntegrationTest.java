@@ -0,0 +1,206 @@
+package com.travelapp.repository;
+
+import com.travelapp.model.DailyFare;
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+import com.travelapp.support.SqlStatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the query plan of the flight search against regressions. The search must stay a
+ * range scan on idx_flight_search; wrapping departure_time in a function (e.g. DATE())
+ * would silently turn it into a scan of the whole route.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.travelapp.support.SqlStatementRecorder",
+    // The plans are checked on the seeded months, which must not be archived
+    "travelapp.flight-partitions.retention-months=0",
+    "travelapp.booking.reference-key=7243029185364871"
+})
+@Testcontainers
+class FlightRepositoryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+        .withDatabaseName("testdb")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void searchFlights_UsesRangeScanOnSearchIndex() {
+        LocalDate date = LocalDate.of(2026, 2, 15);
+
+        SqlStatementRecorder.clear();
+        flightRepository.searchFlights("SFO", "JFK", date.atStartOfDay(), date.plusDays(1).atStartOfDay(), 2);
+        String sql = SqlStatementRecorder.last();
+
+        String plan = explain(sql, "'SFO'", "'JFK'", "'2026-02-15 00:00:00'", "'2026-02-16 00:00:00'", "2");
+
+        assertThat(plan).contains("idx_flight_search");
+        assertThat(plan).containsPattern("Index Cond: .*departure_time >=");
+        assertThat(plan).containsPattern("Index Cond: .*departure_time <");
+        assertThat(plan).containsPattern("Index Cond: .*available_seats >=");
+    }
+
+    @Test
+    void searchFlights_ReturnsOnlyFlightsOfRequestedDay() {
+        LocalDate date = LocalDate.of(2026, 2, 15);
+
+        assertThat(flightRepository.searchFlights("SFO", "JFK", date.atStartOfDay(), date.plusDays(1).atStartOfDay(), 1))
+            .hasSize(5)
+            .allSatisfy(flight -> assertThat(flight.getDepartureTime().toLocalDate()).isEqualTo(date));
+        assertThat(flightRepository.searchFlights("SFO", "JFK", date.plusDays(1).atStartOfDay(), date.plusDays(2).atStartOfDay(), 1))
+            .isEmpty();
+    }
+
+    @Test
+    void searchFlights_SkipsFlightsWithTooFewSeats() {
+        LocalDate date = LocalDate.of(2026, 2, 15);
+
+        // Seed data has 150-200 seats per SFO-JFK flight; only the 200-seat flight fits 190 passengers
+        assertThat(flightRepository.searchFlights("SFO", "JFK", date.atStartOfDay(), date.plusDays(1).atStartOfDay(), 190))
+            .extracting(flight -> flight.getFlightNumber())
+            .containsExactly("AA9012");
+    }
+
+    @Test
+    void findViews_DaySearch_ReadsSelectedColumnsWithRangeScan() {
+        LocalDate date = LocalDate.of(2026, 2, 15);
+        Specification<Flight> daySearch = FlightSpecifications.departingBetween(
+                "SFO", "JFK", date.atStartOfDay(), date.plusDays(1).atStartOfDay())
+            .and(FlightSpecifications.hasSeatsFor(190));
+
+        SqlStatementRecorder.clear();
+        List<FlightView> flights = flightRepository.findViews(
+            daySearch, Set.of("flightNumber"), Sort.by("departureTime", "id"), 0);
+        String sql = SqlStatementRecorder.last();
+        String plan = explain(sql, "'SFO'", "'JFK'", "'2026-02-15 00:00:00'", "'2026-02-16 00:00:00'", "190");
+
+        assertThat(flights).extracting(FlightView::flightNumber).containsExactly("AA9012");
+        assertThat(sql).contains("flight_number").doesNotContain("aircraft_type");
+        assertThat(plan).contains("idx_flight_search");
+        assertThat(plan).containsPattern("Index Cond: .*departure_time >=");
+        assertThat(plan).containsPattern("Index Cond: .*departure_time <");
+    }
+
+    @Test
+    void findDailyFares_GroupsOneRangeScanByDay() {
+        LocalDate from = LocalDate.of(2026, 2, 1);
+        LocalDate to = LocalDate.of(2026, 3, 2);
+
+        SqlStatementRecorder.clear();
+        List<DailyFare> fares = flightRepository.findDailyFares("SFO", "JFK", from.atStartOfDay(), to.atStartOfDay(), 1);
+        String plan = explain(SqlStatementRecorder.last(),
+                              "'SFO'", "'JFK'", "'2026-02-01 00:00:00'", "'2026-03-02 00:00:00'", "1");
+
+        assertThat(fares).containsExactly(
+            new DailyFare(LocalDate.of(2026, 2, 15), Money.of(new BigDecimal("265.00"), Flight.CURRENCY), 5));
+        assertThat(plan).contains("idx_flight_search");
+        assertThat(plan).containsPattern("Index Cond: .*departure_time >=");
+        assertThat(plan).containsPattern("Index Cond: .*departure_time <");
+    }
+
+    @Test
+    @Transactional
+    void decrementAvailableSeats_OnlyWhileEnoughSeatsRemain() {
+        Flight flight = flightRepository.searchFlights("SFO", "JFK", LocalDate.of(2026, 2, 15).atStartOfDay(),
+                                                       LocalDate.of(2026, 2, 16).atStartOfDay(), 1).get(0);
+        Long flightId = flight.getId();
+        LocalDateTime departureTime = flight.getDepartureTime();
+        int seats = jdbcTemplate.queryForObject("SELECT available_seats FROM flight WHERE id = ?", Integer.class, flightId);
+
+        assertThat(flightRepository.decrementAvailableSeats(flightId, departureTime.plusDays(1), 1)).isZero();
+        assertThat(flightRepository.decrementAvailableSeats(flightId, departureTime, seats + 1)).isZero();
+        assertThat(flightRepository.decrementAvailableSeats(flightId, departureTime, seats)).isEqualTo(1);
+        assertThat(flightRepository.decrementAvailableSeats(flightId, departureTime, 1)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT available_seats FROM flight WHERE id = ?", Integer.class, flightId))
+            .isZero();
+    }
+
+    @Test
+    @Transactional
+    void decrementAvailableSeats_UpdatesOnlyTheDepartureMonthsPartition() {
+        Flight flight = flightRepository.searchFlights("SFO", "JFK", LocalDate.of(2026, 2, 15).atStartOfDay(),
+                                                       LocalDate.of(2026, 2, 16).atStartOfDay(), 1).get(0);
+
+        SqlStatementRecorder.clear();
+        flightRepository.decrementAvailableSeats(flight.getId(), flight.getDepartureTime(), 1);
+        String plan = explain(SqlStatementRecorder.last(),
+                              "1", flight.getId().toString(), "'" + flight.getDepartureTime() + "'", "1");
+
+        assertThat(plan).contains("on flight_2026_02");
+        assertThat(plan).doesNotContainPattern("on flight_2026_0[13]");
+    }
+
+    /**
+     * Prepares the statement Hibernate generated and returns its plan for the given literal
+     * arguments. Sequential scans are disabled so the tiny seed table doesn't mask the plan
+     * the planner would choose for a realistically sized table.
+     */
+    private String explain(String sql, String... arguments) {
+        StringBuilder parameterized = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                parameterized.append('$').append(++parameter);
+            } else {
+                parameterized.append(c);
+            }
+        }
+        assertThat(parameter).isEqualTo(arguments.length);
+        String statement = parameterized.toString();
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement jdbc = connection.createStatement()) {
+                jdbc.execute("SET enable_seqscan = off");
+                jdbc.execute("PREPARE flight_search AS " + statement);
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = jdbc.executeQuery(
+                        "EXPLAIN EXECUTE flight_search(" + String.join(", ", arguments) + ")")) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                jdbc.execute("DEALLOCATE flight_search");
+                jdbc.execute("RESET enable_seqscan");
+                return plan.toString();
+            }
+        });
+    }
+}
@@ -0,0 +1,148 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Booking;
+import com.travelapp.model.BookingStatus;
+import com.travelapp.model.BookingView;
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIdempotencyServiceTest {
+
+    private static final String KEY = "checkout-42";
+
+    @Mock
+    private BookingService bookingService;
+
+    private BookingIdempotencyService idempotencyService;
+
+    private final BookingRequest request = new BookingRequest(1L, "Jane Doe", "jane@example.com", "1234567890", 2);
+
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new BookingIdempotencyService(bookingService, 100, Duration.ofMinutes(1));
+        booking = booking("K7Q2ZD");
+    }
+
+    @Test
+    void createBooking_DuplicateKey_ReplaysWithoutBookingAgain() {
+        when(bookingService.createBooking(request, KEY)).thenReturn(booking);
+
+        BookingView first = idempotencyService.createBooking(request, KEY);
+        BookingView retried = idempotencyService.createBooking(request, KEY);
+
+        assertThat(retried).isSameAs(first);
+        verify(bookingService, times(1)).createBooking(request, KEY);
+    }
+
+    @Test
+    void createBooking_ConcurrentDuplicates_WaitForFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookingService.createBooking(request, KEY)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return booking;
+        });
+
+        CompletableFuture<BookingView> first = CompletableFuture.supplyAsync(
+            () -> idempotencyService.createBooking(request, KEY));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<BookingView> duplicate = CompletableFuture.supplyAsync(
+            () -> idempotencyService.createBooking(request, KEY));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        verify(bookingService, times(1)).createBooking(request, KEY);
+    }
+
+    @Test
+    void createBooking_FirstExecutionFailed_RetryBooksAgain() {
+        when(bookingService.createBooking(request, KEY))
+            .thenThrow(new IllegalStateException("No seats available on this flight"))
+            .thenReturn(booking);
+
+        assertThatThrownBy(() -> idempotencyService.createBooking(request, KEY))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(idempotencyService.createBooking(request, KEY).bookingReference()).isEqualTo("K7Q2ZD");
+    }
+
+    @Test
+    void createBooking_KeyReusedForOtherDetails_ThrowsException() {
+        when(bookingService.createBooking(request, KEY)).thenReturn(booking);
+        idempotencyService.createBooking(request, KEY);
+
+        BookingRequest other = new BookingRequest(1L, "John Doe", "john@example.com", "1234567890", 2);
+        assertThatThrownBy(() -> idempotencyService.createBooking(other, KEY))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Idempotency key was already used for a different booking");
+    }
+
+    @Test
+    void createBooking_KeyCommittedByAnotherInstance_ReturnsThatBooking() {
+        when(bookingService.createBooking(request, KEY))
+            .thenThrow(new DataIntegrityViolationException("uk_booking_idempotency_key"));
+        when(bookingService.findByIdempotencyKey(KEY)).thenReturn(Optional.of(booking));
+
+        assertThat(idempotencyService.createBooking(request, KEY).bookingReference()).isEqualTo("K7Q2ZD");
+    }
+
+    @Test
+    void createBooking_NoKey_AlwaysBooks() {
+        when(bookingService.createBooking(request, null)).thenReturn(booking, booking("M3X8PA"));
+
+        assertThat(idempotencyService.createBooking(request, null).bookingReference()).isEqualTo("K7Q2ZD");
+        assertThat(idempotencyService.createBooking(request, null).bookingReference()).isEqualTo("M3X8PA");
+        verify(bookingService, never()).findByIdempotencyKey(any());
+    }
+
+    private Booking booking(String reference) {
+        Flight flight = new Flight();
+        flight.setId(1L);
+        flight.setFlightNumber("UA1234");
+        flight.setAirline("United Airlines");
+        flight.setOrigin("SFO");
+        flight.setDestination("JFK");
+        flight.setDepartureTime(LocalDateTime.of(2026, 2, 15, 8, 0));
+        flight.setArrivalTime(LocalDateTime.of(2026, 2, 15, 16, 30));
+        flight.setDurationMinutes(330);
+        flight.setPrice(Money.of(new BigDecimal("350.00"), Flight.CURRENCY));
+        flight.setStops(0);
+        flight.setAircraftType("Boeing 737");
+        flight.setAvailableSeats(148);
+
+        Booking created = new Booking();
+        created.setFlight(flight);
+        created.setBookingReference(reference);
+        created.setPassengerName(request.passengerName());
+        created.setPassengerEmail(request.passengerEmail());
+        created.setPassengerPhone(request.passengerPhone());
+        created.setSeats(request.seats());
+        created.setBookingDate(LocalDateTime.of(2026, 1, 10, 9, 0));
+        created.setStatus(BookingStatus.CONFIRMED);
+        created.setIdempotencyKey(KEY);
+        return created;
+    }
+}
@@ -0,0 +1,168 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Booking;
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import com.travelapp.model.OutboxMessage;
+import com.travelapp.repository.BookingRepository;
+import com.travelapp.repository.FlightRepository;
+import com.travelapp.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bookings queue events in the outbox, and dispatching delivers them to every sink. Backoff
+ * starts at zero so a failed message is due again on the next dispatch.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outbox",
+    "travelapp.outbox.initial-backoff=PT0S"
+})
+@ActiveProfiles("test")
+class BookingOutboxDispatcherTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingOutboxDispatcher dispatcher;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private OutboxMessageRepository outboxRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        bookingRepository.deleteAll();
+        flightRepository.deleteAll();
+        recordingSink.events.clear();
+    }
+
+    @Test
+    void createBookings_QueuesOneMessagePerSinkAndDispatchDeliversThem() {
+        Flight flight = flightRepository.save(createFlight());
+        List<BookingOutcome> outcomes = bookingService.createBookings(List.of(
+            new BookingRequest(flight.getId(), "Jane Doe", "jane@example.com", "1234567890", 1),
+            new BookingRequest(flight.getId(), "John Doe", "john@example.com", "1234567890", 2)));
+
+        assertThat(outboxRepository.findAll())
+            .extracting(OutboxMessage::getSink)
+            .containsExactlyInAnyOrder("log", "log", "recording", "recording");
+
+        dispatcher.dispatch();
+
+        assertThat(recordingSink.events)
+            .extracting(BookingConfirmedEvent::bookingReference)
+            .containsExactlyInAnyOrderElementsOf(
+                outcomes.stream().map(outcome -> outcome.booking().getBookingReference()).toList());
+        assertThat(recordingSink.events).allSatisfy(event -> {
+            assertThat(event.flightNumber()).isEqualTo("UA1234");
+            assertThat(event.departureTime()).isEqualTo(flight.getDepartureTime());
+        });
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void dispatch_SinkFails_KeepsMessageAndRetriesUntilDelivered() {
+        Flight flight = flightRepository.save(createFlight());
+        recordingSink.failures.set(1);
+        Booking booking = bookingService.createBooking(flight.getId(), "Jane Doe", "jane@example.com", "1234567890");
+
+        dispatcher.dispatch();
+
+        assertThat(recordingSink.events).isEmpty();
+        assertThat(outboxRepository.findAll()).singleElement().satisfies(message -> {
+            assertThat(message.getSink()).isEqualTo("recording");
+            assertThat(message.getAttempts()).isEqualTo(1);
+            assertThat(message.getLastError()).contains("Sink unavailable");
+        });
+
+        dispatcher.dispatch();
+
+        assertThat(recordingSink.events).singleElement()
+            .extracting(BookingConfirmedEvent::bookingReference).isEqualTo(booking.getBookingReference());
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void backoff_DoublesFromInitialUpToMax() {
+        BookingOutboxDispatcher backoffs = new BookingOutboxDispatcher(mock(BookingOutbox.class), List.of(), 100,
+            Duration.ofSeconds(30), Duration.ofSeconds(1), Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+        assertThat(backoffs.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(backoffs.backoff(4)).isEqualTo(Duration.ofSeconds(8));
+        assertThat(backoffs.backoff(10)).isEqualTo(Duration.ofSeconds(512));
+        assertThat(backoffs.backoff(11)).isEqualTo(Duration.ofMinutes(10));
+        assertThat(backoffs.backoff(1000)).isEqualTo(Duration.ofMinutes(10));
+        backoffs.shutdown();
+    }
+
+    private Flight createFlight() {
+        Flight flight = new Flight();
+        flight.setFlightNumber("UA1234");
+        flight.setAirline("United Airlines");
+        flight.setOrigin("SFO");
+        flight.setDestination("JFK");
+        flight.setDepartureTime(LocalDateTime.now().plusDays(10).withNano(0));
+        flight.setArrivalTime(flight.getDepartureTime().plusHours(5));
+        flight.setDurationMinutes(300);
+        flight.setPrice(Money.of(new BigDecimal("350.00"), Flight.CURRENCY));
+        flight.setStops(0);
+        flight.setAircraftType("Boeing 737");
+        flight.setAvailableSeats(150);
+        return flight;
+    }
+
+    static class RecordingSink implements BookingEventSink {
+
+        final List<BookingConfirmedEvent> events = new CopyOnWriteArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void accept(BookingConfirmedEvent event) {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("Sink unavailable");
+            }
+            events.add(event);
+        }
+    }
+
+    @TestConfiguration
+    static class Sinks {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.travelapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class BookingReferenceGeneratorTest {
+
+    private static final long KEY = 42L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void next_ReturnsSixCharacterAlphanumericReferences() {
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(new AtomicLong(1)::getAndIncrement, KEY, meterRegistry);
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(generator.next()).matches("^[A-Z0-9]{6}$");
+        }
+    }
+
+    @Test
+    void next_AllocatesOneSequenceValuePerBlock() {
+        AtomicLong sequence = new AtomicLong(1);
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(sequence::getAndIncrement, KEY, meterRegistry);
+
+        for (int i = 0; i < BookingReferenceGenerator.BLOCK_SIZE * 3; i++) {
+            generator.next();
+        }
+
+        assertThat(sequence.get()).isEqualTo(4);
+    }
+
+    @Test
+    void next_ConcurrentCallers_NeverRepeatAReference() throws Exception {
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(new AtomicLong(1)::getAndIncrement, KEY, meterRegistry);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> references = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) {
+                        references.add(generator.next());
+                    }
+                    return references;
+                }));
+            }
+            Set<String> unique = new HashSet<>();
+            for (Future<List<String>> future : futures) {
+                unique.addAll(future.get());
+            }
+            assertThat(unique).hasSize(8 * 20_000);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void next_SeparateInstancesSharingASequence_NeverRepeatAReference() {
+        AtomicLong sequence = new AtomicLong(1);
+        BookingReferenceGenerator first = new BookingReferenceGenerator(sequence::getAndIncrement, KEY, meterRegistry);
+        BookingReferenceGenerator second = new BookingReferenceGenerator(sequence::getAndIncrement, KEY, meterRegistry);
+
+        Set<String> unique = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            unique.add(first.next());
+            unique.add(second.next());
+        }
+
+        assertThat(unique).hasSize(100_000);
+    }
+
+    @Test
+    void permute_StaysWithinReferenceSpace() {
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(() -> 1, KEY, meterRegistry);
+
+        for (long value = BookingReferenceGenerator.REFERENCE_SPACE - 10_000;
+             value < BookingReferenceGenerator.REFERENCE_SPACE; value++) {
+            assertThat(generator.permute(value)).isBetween(0L, BookingReferenceGenerator.REFERENCE_SPACE - 1);
+        }
+    }
+
+    @Test
+    void next_ExhaustedSequence_ThrowsException() {
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(
+            () -> BookingReferenceGenerator.REFERENCE_SPACE / BookingReferenceGenerator.BLOCK_SIZE, KEY, meterRegistry);
+
+        assertThatThrownBy(generator::next)
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("exhausted");
+    }
+
+    @Test
+    void parseKey_MissingKey_FailsStartup() {
+        assertThatThrownBy(() -> BookingReferenceGenerator.parseKey(""))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("BOOKING_REFERENCE_KEY");
+        assertThatThrownBy(() -> BookingReferenceGenerator.parseKey("not-a-number"))
+            .isInstanceOf(IllegalStateException.class);
+        assertThat(BookingReferenceGenerator.parseKey(" 42 ")).isEqualTo(42L);
+    }
+}
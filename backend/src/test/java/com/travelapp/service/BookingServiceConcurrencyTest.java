@@ -0,0 +1,198 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import com.travelapp.repository.BookingRepository;
+import com.travelapp.repository.FlightRepository;
+import com.travelapp.support.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:concurrency;LOCK_TIMEOUT=10000",
+    // Bookings hold their connection while waiting for the flight's row lock, so with more
+    // threads than connections the wait for a connection must outlast the lock timeout
+    "spring.datasource.hikari.connection-timeout=15000",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.travelapp.support.SqlStatementRecorder"
+})
+@ActiveProfiles("test")
+class BookingServiceConcurrencyTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingServiceConcurrencyTest.class);
+
+    private static final int SEATS = 200;
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        flightRepository.deleteAll();
+    }
+
+    @Test
+    void createBooking_ParallelBookingsOnOneFlight_NeverOversells() throws Exception {
+        BookingRun run = bookParallel(bookingService, flightRepository.save(createFlight(SEATS)).getId());
+
+        assertThat(run.confirmed()).isEqualTo(SEATS);
+        assertThat(run.soldOut()).isEqualTo(ATTEMPTS - SEATS);
+        assertThat(bookingRepository.count()).isEqualTo(SEATS);
+        assertThat(flightRepository.findById(run.flightId()).orElseThrow().getAvailableSeats()).isZero();
+        // Once a decrement fails, the sold-out layer turns attempts away before the row lock;
+        // only those already past it when the last seat went still reach the database
+        assertThat(run.decrements()).isLessThanOrEqualTo(SEATS + THREADS);
+    }
+
+    @Test
+    void createBooking_SameKeyOnTwoInstances_BooksOnce() throws Exception {
+        Long flightId = flightRepository.save(createFlight(SEATS)).getId();
+        BookingRequest request = new BookingRequest(flightId, "Jane Doe", "jane@example.com", "1234567890", 1);
+        // Separate in-memory key caches, as on two application instances sharing the database
+        List<BookingIdempotencyService> instances = List.of(
+            new BookingIdempotencyService(bookingService, 100, Duration.ofMinutes(1)),
+            new BookingIdempotencyService(bookingService, 100, Duration.ofMinutes(1)));
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                BookingIdempotencyService instance = instances.get(i % instances.size());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return instance.createBooking(request, "checkout-42").bookingReference();
+                }));
+            }
+            start.countDown();
+            Set<String> references = new HashSet<>();
+            for (Future<String> future : futures) {
+                references.add(future.get());
+            }
+            assertThat(references).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(bookingRepository.count()).isEqualTo(1);
+        assertThat(flightRepository.findById(flightId).orElseThrow().getAvailableSeats()).isEqualTo(SEATS - 1);
+    }
+
+    /**
+     * The same load with the sold-out layer disabled, as a baseline: every attempt then runs
+     * the conditional UPDATE and queues on the flight's row lock, sold out or not.
+     */
+    @Nested
+    @TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency-baseline;LOCK_TIMEOUT=10000",
+        "travelapp.inventory.sold-out-ttl=PT0S"
+    })
+    class WithoutSoldOutLayer {
+
+        @Autowired
+        private BookingService bookingService;
+
+        @Autowired
+        private FlightRepository flightRepository;
+
+        @Test
+        void createBooking_ParallelBookingsOnOneFlight_EveryAttemptTakesRowLock() throws Exception {
+            BookingRun run = bookParallel(bookingService, flightRepository.save(createFlight(SEATS)).getId());
+
+            assertThat(run.confirmed()).isEqualTo(SEATS);
+            assertThat(run.decrements()).isEqualTo(ATTEMPTS);
+        }
+    }
+
+    private static BookingRun bookParallel(BookingService bookingService, Long flightId) throws Exception {
+        AtomicInteger confirmed = new AtomicInteger();
+        AtomicInteger soldOut = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        SqlStatementRecorder.clear();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        bookingService.createBooking(flightId, "Jane Doe", "jane@example.com", "1234567890");
+                        confirmed.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        soldOut.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+            long decrements = SqlStatementRecorder.statements().stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("update flight set available_seats"))
+                .count();
+            log.info("Booked {} of {} attempts on one flight with {} threads in {}s: " +
+                     "{} attempts/sec, {} confirmed bookings/sec, {} seat decrements",
+                     confirmed.get(), ATTEMPTS, THREADS, "%.2f".formatted(seconds),
+                     Math.round(ATTEMPTS / seconds), Math.round(confirmed.get() / seconds), decrements);
+            return new BookingRun(flightId, confirmed.get(), soldOut.get(), decrements);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private record BookingRun(Long flightId, int confirmed, int soldOut, long decrements) {
+    }
+
+    private static Flight createFlight(int seats) {
+        LocalDateTime departure = LocalDateTime.now().plusDays(30).withNano(0);
+        Flight flight = new Flight();
+        flight.setFlightNumber("UA1234");
+        flight.setAirline("United Airlines");
+        flight.setOrigin("SFO");
+        flight.setDestination("JFK");
+        flight.setDepartureTime(departure);
+        flight.setArrivalTime(departure.plusMinutes(330));
+        flight.setDurationMinutes(330);
+        flight.setPrice(Money.of(new BigDecimal("350.00"), Flight.CURRENCY));
+        flight.setStops(0);
+        flight.setAircraftType("Boeing 737");
+        flight.setAvailableSeats(seats);
+        return flight;
+    }
+}
@@ -3,6 +3,8 @@ package com.travelapp.service;
 import com.travelapp.model.Booking;
 import com.travelapp.model.BookingStatus;
 import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
 import com.travelapp.repository.BookingRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,10 +12,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,9 +36,26 @@ class BookingServiceTest {
     @Mock
     private FlightService flightService;
 
+    @Mock
+    private SeatInventoryService seatInventoryService;
+
+    @Mock
+    private BookingReferenceGenerator referenceGenerator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BookingOutbox outbox;
+
+    @Mock
+    private BookingLookupCache lookupCache;
+
     @InjectMocks
     private BookingService bookingService;
 
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 2, 15, 8, 0);
+
     private Flight flight;
 
     @BeforeEach
@@ -41,10 +66,10 @@ class BookingServiceTest {
         flight.setAirline("United Airlines");
         flight.setOrigin("SFO");
         flight.setDestination("JFK");
-        flight.setDepartureTime(LocalDateTime.of(2026, 2, 15, 8, 0));
+        flight.setDepartureTime(DEPARTURE);
         flight.setArrivalTime(LocalDateTime.of(2026, 2, 15, 16, 30));
         flight.setDurationMinutes(330);
-        flight.setPrice(new BigDecimal("350.00"));
+        flight.setPrice(Money.of(new BigDecimal("350.00"), Flight.CURRENCY));
         flight.setStops(0);
         flight.setAircraftType("Boeing 737");
         flight.setAvailableSeats(150);
@@ -52,8 +77,10 @@ class BookingServiceTest {
 
     @Test
     void createBooking_ValidInput_ReturnsBooking() {
-        when(flightService.findById(1L)).thenReturn(Optional.of(flight));
-        when(bookingRepository.existsByBookingReference(anyString())).thenReturn(false);
+        when(flightService.findViewsById(List.of(1L))).thenReturn(List.of(FlightView.of(flight)));
+        when(seatInventoryService.reserveSeats(1L, DEPARTURE, 1)).thenReturn(true);
+        when(flightService.findById(1L, DEPARTURE)).thenReturn(Optional.of(flight));
+        when(referenceGenerator.next()).thenReturn("K7Q2ZD");
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
             Booking booking = invocation.getArgument(0);
             return booking;
@@ -68,14 +95,88 @@ class BookingServiceTest {
 
         assertThat(booking).isNotNull();
         assertThat(booking.getPassengerName()).isEqualTo("John Doe");
-        assertThat(booking.getBookingReference()).hasSize(6);
+        assertThat(booking.getBookingReference()).isEqualTo("K7Q2ZD");
         assertThat(booking.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        verify(seatInventoryService).reserveSeats(1L, DEPARTURE, 1);
+        verify(eventPublisher).publishEvent(new FlightSeatsChangedEvent(1L, "SFO", "JFK", LocalDate.of(2026, 2, 15)));
         verify(bookingRepository).save(any(Booking.class));
+        verify(outbox).append(List.of(booking));
+    }
+
+    @Test
+    void createBooking_KnownIdempotencyKey_ReturnsExistingBookingWithoutWriting() {
+        BookingRequest request = new BookingRequest(1L, "John Doe", "john@example.com", "1234567890", 1);
+        Booking existing = new Booking();
+        existing.setFlight(flight);
+        existing.setBookingReference("K7Q2ZD");
+        existing.setPassengerName("John Doe");
+        existing.setPassengerEmail("john@example.com");
+        existing.setPassengerPhone("1234567890");
+        existing.setSeats(1);
+        when(bookingRepository.findByIdempotencyKey("checkout-42")).thenReturn(Optional.of(existing));
+
+        assertThat(bookingService.createBooking(request, "checkout-42")).isSameAs(existing);
+        assertThatThrownBy(() -> bookingService.createBooking(
+                new BookingRequest(1L, "John Doe", "john@example.com", "1234567890", 2), "checkout-42"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Idempotency key was already used for a different booking");
+        verifyNoInteractions(seatInventoryService, eventPublisher, outbox);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_NewIdempotencyKey_StoresKeyOnBooking() {
+        when(bookingRepository.findByIdempotencyKey("checkout-42")).thenReturn(Optional.empty());
+        when(flightService.findViewsById(List.of(1L))).thenReturn(List.of(FlightView.of(flight)));
+        when(seatInventoryService.reserveSeats(1L, DEPARTURE, 1)).thenReturn(true);
+        when(flightService.findById(1L, DEPARTURE)).thenReturn(Optional.of(flight));
+        when(referenceGenerator.next()).thenReturn("K7Q2ZD");
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking booking = bookingService.createBooking(
+            new BookingRequest(1L, "John Doe", "john@example.com", "1234567890", 1), "checkout-42");
+
+        assertThat(booking.getIdempotencyKey()).isEqualTo("checkout-42");
+    }
+
+    @Test
+    void createBooking_MultipleSeats_ReservesAllSeatsUnderOneReference() {
+        when(flightService.findViewsById(List.of(1L))).thenReturn(List.of(FlightView.of(flight)));
+        when(seatInventoryService.reserveSeats(1L, DEPARTURE, 3)).thenReturn(true);
+        when(flightService.findById(1L, DEPARTURE)).thenReturn(Optional.of(flight));
+        when(referenceGenerator.next()).thenReturn("K7Q2ZD");
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking booking = bookingService.createBooking(
+            1L,
+            "John Doe",
+            "john@example.com",
+            "1234567890",
+            3
+        );
+
+        assertThat(booking.getSeats()).isEqualTo(3);
+        verify(seatInventoryService).reserveSeats(1L, DEPARTURE, 3);
+        verify(bookingRepository, times(1)).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_TooManySeats_ThrowsException() {
+        assertThatThrownBy(() -> bookingService.createBooking(
+            1L,
+            "John Doe",
+            "john@example.com",
+            "1234567890",
+            10
+        ))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Seats must be between 1 and 9");
+        verifyNoInteractions(seatInventoryService);
     }
 
     @Test
     void createBooking_FlightNotFound_ThrowsException() {
-        when(flightService.findById(999L)).thenReturn(Optional.empty());
+        when(flightService.findViewsById(List.of(999L))).thenReturn(List.of());
 
         assertThatThrownBy(() -> bookingService.createBooking(
             999L,
@@ -85,12 +186,11 @@ class BookingServiceTest {
         ))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Flight not found");
+        verifyNoInteractions(seatInventoryService);
     }
 
     @Test
     void createBooking_InvalidEmail_ThrowsException() {
-        when(flightService.findById(1L)).thenReturn(Optional.of(flight));
-
         assertThatThrownBy(() -> bookingService.createBooking(
             1L,
             "John Doe",
@@ -103,8 +203,6 @@ class BookingServiceTest {
 
     @Test
     void createBooking_InvalidPhone_ThrowsException() {
-        when(flightService.findById(1L)).thenReturn(Optional.of(flight));
-
         assertThatThrownBy(() -> bookingService.createBooking(
             1L,
             "John Doe",
@@ -112,13 +210,16 @@ class BookingServiceTest {
             "123"
         ))
             .isInstanceOf(IllegalArgumentException.class)
-            .hasMessageContaining("Phone number must be 10-20 digits");
+            .hasMessageContaining("Phone number must be 10-15 digits");
+        verifyNoInteractions(seatInventoryService);
     }
 
     @Test
     void createBooking_NoSeatsAvailable_ThrowsException() {
         flight.setAvailableSeats(0);
-        when(flightService.findById(1L)).thenReturn(Optional.of(flight));
+        when(flightService.findViewsById(List.of(1L))).thenReturn(List.of(FlightView.of(flight)));
+        when(seatInventoryService.reserveSeats(1L, DEPARTURE, 1)).thenReturn(false);
+        when(flightService.findById(1L, DEPARTURE)).thenReturn(Optional.of(flight));
 
         assertThatThrownBy(() -> bookingService.createBooking(
             1L,
@@ -128,5 +229,91 @@ class BookingServiceTest {
         ))
             .isInstanceOf(IllegalStateException.class)
             .hasMessageContaining("No seats available");
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_FlightRescheduledIntoAnotherMonth_ReservesAtCurrentDepartureTime() {
+        LocalDateTime rescheduled = LocalDateTime.of(2026, 3, 2, 8, 0);
+        when(flightService.findViewsById(List.of(1L))).thenReturn(List.of(FlightView.of(flight)));
+        flight.setDepartureTime(rescheduled);
+        when(seatInventoryService.reserveSeats(1L, DEPARTURE, 1)).thenReturn(false);
+        when(flightService.findById(1L, DEPARTURE)).thenReturn(Optional.empty());
+        when(flightService.findById(1L)).thenReturn(Optional.of(flight));
+        when(seatInventoryService.reserveSeats(1L, rescheduled, 1)).thenReturn(true);
+        when(flightService.findById(1L, rescheduled)).thenReturn(Optional.of(flight));
+        when(referenceGenerator.next()).thenReturn("K7Q2ZD");
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Booking booking = bookingService.createBooking(1L, "John Doe", "john@example.com", "1234567890");
+
+        assertThat(booking.getFlightDepartureTime()).isEqualTo(rescheduled);
+        verify(eventPublisher).publishEvent(new FlightSeatsChangedEvent(1L, "SFO", "JFK", LocalDate.of(2026, 3, 2)));
+    }
+
+    @Test
+    void createBookings_SeveralPassengers_ReservesOncePerFlightAndSavesTogether() {
+        Flight other = new Flight();
+        other.setId(2L);
+        other.setOrigin("LAX");
+        other.setDestination("ORD");
+        other.setDepartureTime(LocalDateTime.of(2026, 2, 16, 9, 0));
+        other.setDurationMinutes(270);
+        other.setStops(0);
+        other.setAvailableSeats(0);
+        when(flightService.findViewsById(Set.of(1L, 2L)))
+            .thenReturn(List.of(FlightView.of(flight), FlightView.of(other)));
+        when(seatInventoryService.reserveSeats(1L, DEPARTURE, 3)).thenReturn(true);
+        when(seatInventoryService.reserveSeats(2L, other.getDepartureTime(), 1)).thenReturn(false);
+        when(flightService.findById(2L, other.getDepartureTime())).thenReturn(Optional.of(other));
+        when(flightService.findAllById(Map.of(1L, DEPARTURE))).thenReturn(List.of(flight));
+        when(referenceGenerator.next()).thenReturn("K7Q2ZD", "M4P8XR");
+
+        List<BookingOutcome> outcomes = bookingService.createBookings(List.of(
+            new BookingRequest(1L, "John Doe", "john@example.com", "1234567890", 2),
+            new BookingRequest(2L, "Jane Doe", "jane@example.com", "1234567890", 1),
+            new BookingRequest(1L, "J", "jim@example.com", "1234567890", 1),
+            new BookingRequest(1L, "Jim Doe", "jim@example.com", "1234567890", 1)
+        ));
+
+        assertThat(outcomes).extracting(BookingOutcome::isSuccess).containsExactly(true, false, false, true);
+        assertThat(outcomes.get(0).booking().getBookingReference()).isEqualTo("K7Q2ZD");
+        assertThat(outcomes.get(1).failure()).isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("No seats available");
+        assertThat(outcomes.get(2).failure()).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Passenger name");
+        verify(seatInventoryService).reserveSeats(1L, DEPARTURE, 3);
+        verify(flightService, never()).findById(any());
+        verify(eventPublisher).publishEvent(new FlightSeatsChangedEvent(1L, "SFO", "JFK", LocalDate.of(2026, 2, 15)));
+        verify(bookingRepository).saveAll(List.of(outcomes.get(0).booking(), outcomes.get(3).booking()));
+    }
+
+    @Test
+    void createBookings_UnknownFlight_FailsOnlyThoseBookings() {
+        when(flightService.findViewsById(Set.of(999L, 1L))).thenReturn(List.of(FlightView.of(flight)));
+        when(seatInventoryService.reserveSeats(1L, DEPARTURE, 1)).thenReturn(true);
+        when(flightService.findAllById(Map.of(1L, DEPARTURE))).thenReturn(List.of(flight));
+        when(referenceGenerator.next()).thenReturn("K7Q2ZD");
+
+        List<BookingOutcome> outcomes = bookingService.createBookings(List.of(
+            new BookingRequest(999L, "John Doe", "john@example.com", "1234567890", 1),
+            new BookingRequest(1L, "Jane Doe", "jane@example.com", "1234567890", 1)
+        ));
+
+        assertThat(outcomes.get(0).failure()).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Flight not found");
+        assertThat(outcomes.get(1).isSuccess()).isTrue();
+        verify(seatInventoryService, never()).reserveSeats(eq(999L), any(), anyInt());
+    }
+
+    @Test
+    void createBookings_TooManyBookings_ThrowsException() {
+        List<BookingRequest> requests = Collections.nCopies(BookingService.MAX_GROUP_SIZE + 1,
+            new BookingRequest(1L, "John Doe", "john@example.com", "1234567890", 1));
+
+        assertThatThrownBy(() -> bookingService.createBookings(requests))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("At most 50 bookings");
+        verifyNoInteractions(seatInventoryService);
     }
 }
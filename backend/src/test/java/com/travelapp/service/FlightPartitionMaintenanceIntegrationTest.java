@@ -0,0 +1,146 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Booking;
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import com.travelapp.repository.FlightRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs partition maintenance against PostgreSQL with a short window. Each test works in its own
+ * month years ahead, so neither depends on what the other created or archived.
+ */
+@SpringBootTest(properties = {
+    "travelapp.flight-partitions.months-ahead=2",
+    "travelapp.flight-partitions.retention-months=1",
+    "travelapp.booking.reference-key=7243029185364871"
+})
+@Testcontainers
+class FlightPartitionMaintenanceIntegrationTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+        .withDatabaseName("testdb")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private FlightPartitionMaintenance maintenance;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void maintain_CreatesPartitionsAheadWithNamedIndexes() {
+        YearMonth month = YearMonth.now(ZoneOffset.UTC).plusYears(4);
+
+        maintenance.maintain(month);
+        maintenance.maintain(month);
+
+        for (YearMonth created : new YearMonth[] {month, month.plusMonths(1), month.plusMonths(2)}) {
+            assertThat(partitionSchema(created)).isEqualTo("public");
+            assertThat(relationExists("idx_flight_search_" + created.format(SUFFIX))).isTrue();
+        }
+        assertThat(partitionSchema(month.plusMonths(3))).isNull();
+
+        Flight flight = flightRepository.save(flight("UA4100", month.plusMonths(1).atDay(10).atTime(8, 0)));
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM flight WHERE id = ?",
+            String.class, flight.getId())).isEqualTo("flight_" + month.plusMonths(1).format(SUFFIX));
+    }
+
+    @Test
+    void maintain_ArchivesMonthsPastRetentionWithTheirBookings() {
+        YearMonth month = YearMonth.now(ZoneOffset.UTC).plusYears(8);
+        maintenance.maintain(month);
+        Flight flight = flightRepository.save(flight("DL4200", month.atDay(5).atTime(9, 30)));
+        Booking booking = bookingService.createBooking(flight.getId(), "Ada Lovelace", "ada@example.com",
+                                                       "+14155550100");
+        assertThat(booking.getFlightDepartureTime()).isEqualTo(flight.getDepartureTime());
+        // Cached now, and must not be served once archived
+        assertThat(bookingService.findViewByBookingReference(booking.getBookingReference())).isPresent();
+
+        maintenance.maintain(month.plusMonths(1));
+        assertThat(partitionSchema(month)).isEqualTo("public");
+
+        maintenance.maintain(month.plusMonths(2));
+
+        assertThat(partitionSchema(month)).isEqualTo("archive");
+        assertThat(flightRepository.findById(flight.getId())).isEmpty();
+        assertThat(bookingService.findByBookingReference(booking.getBookingReference())).isEmpty();
+        assertThat(bookingService.findViewByBookingReference(booking.getBookingReference())).isEmpty();
+        assertThat(jdbcTemplate.queryForMap("""
+                SELECT flight_id, flight_departure_time, passenger_email, status, seats
+                FROM archive.booking WHERE booking_reference = ?
+                """, booking.getBookingReference()))
+            .containsEntry("flight_id", flight.getId())
+            .containsEntry("flight_departure_time", Timestamp.valueOf(flight.getDepartureTime()))
+            .containsEntry("passenger_email", "ada@example.com")
+            .containsEntry("status", "CONFIRMED")
+            .containsEntry("seats", 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM archive.flight_" + month.format(SUFFIX),
+            Long.class)).isEqualTo(1);
+        assertThat(partitionSchema(month.plusMonths(1))).isEqualTo("public");
+    }
+
+    /** Schema holding the month's partition table, or null if there is none. */
+    private String partitionSchema(YearMonth month) {
+        return jdbcTemplate.query("""
+                SELECT n.nspname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE c.relname = ?
+                """, (result, row) -> result.getString(1), "flight_" + month.format(SUFFIX))
+            .stream().findFirst().orElse(null);
+    }
+
+    private boolean relationExists(String name) {
+        return Boolean.TRUE.equals(
+            jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    private static Flight flight(String flightNumber, LocalDateTime departure) {
+        Flight flight = new Flight();
+        flight.setFlightNumber(flightNumber);
+        flight.setAirline("Test Air");
+        flight.setOrigin("SFO");
+        flight.setDestination("JFK");
+        flight.setDepartureTime(departure);
+        flight.setArrivalTime(departure.plusHours(5));
+        flight.setDurationMinutes(300);
+        flight.setPrice(Money.of(new BigDecimal("320.00"), Flight.CURRENCY));
+        flight.setStops(0);
+        flight.setAircraftType("A321");
+        flight.setAvailableSeats(150);
+        return flight;
+    }
+}
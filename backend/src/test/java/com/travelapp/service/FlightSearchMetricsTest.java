@@ -0,0 +1,55 @@
+package com.travelapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FlightSearchMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FlightSearchMetrics searchMetrics = new FlightSearchMetrics(meterRegistry, new AirportTimeZones());
+
+    @Test
+    void record_KnownRoute_TagsRouteAndSuccess() {
+        List<String> result = searchMetrics.record("searchFlights", "sfo", "jfk", () -> List.of("UA1234"));
+
+        assertThat(result).containsExactly("UA1234");
+        assertThat(meterRegistry.get(FlightSearchMetrics.SEARCH_COUNTER).tag("route", "SFO-JFK").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(FlightSearchMetrics.SEARCH_TIMER).tag("outcome", "success").timer().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void record_UnknownAirports_ShareOneRouteTag() {
+        searchMetrics.record("searchFlights", "XXX", "JFK", List::of);
+        searchMetrics.record("searchFlights", "SFO", "not-an-airport", List::of);
+        searchMetrics.record("searchFlights", null, "JFK", List::of);
+
+        assertThat(meterRegistry.get(FlightSearchMetrics.SEARCH_COUNTER).counters())
+            .singleElement()
+            .satisfies(counter -> {
+                assertThat(counter.getId().getTag("route")).isEqualTo(FlightSearchMetrics.OTHER_ROUTE);
+                assertThat(counter.count()).isEqualTo(3);
+            });
+    }
+
+    @Test
+    void record_InvalidInput_TagsInvalidOutcomeAndRethrows() {
+        assertThatThrownBy(() -> searchMetrics.record("searchFlights", "SFO", "JFK", () -> {
+            throw new IllegalArgumentException("Invalid date format");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThatThrownBy(() -> searchMetrics.record("searchFlights", "SFO", "JFK", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(meterRegistry.get(FlightSearchMetrics.SEARCH_TIMER).tag("outcome", "invalid").timer().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get(FlightSearchMetrics.SEARCH_TIMER).tag("outcome", "error").timer().count())
+            .isEqualTo(1);
+    }
+}
@@ -1,18 +1,32 @@
 package com.travelapp.service;
 
+import com.travelapp.model.DailyFare;
 import com.travelapp.model.Flight;
+import com.travelapp.model.FlightSort;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
 import com.travelapp.repository.FlightRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -21,9 +35,27 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class FlightServiceTest {
 
+    private static final Set<String> PROPERTIES = Set.of("flightNumber");
+
     @Mock
     private FlightRepository flightRepository;
 
+    @Spy
+    private AirportTimeZones airportTimeZones = new AirportTimeZones();
+
+    @Spy
+    private FlightSearchCache searchCache =
+        new FlightSearchCache(100, Duration.ofMinutes(1), Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+    @Mock
+    private RouteGraphService routeGraphService;
+
+    @Mock
+    private FlightSnapshotService flightSnapshot;
+
+    @Spy
+    private FlightSearchMetrics searchMetrics = new FlightSearchMetrics(new SimpleMeterRegistry(), new AirportTimeZones());
+
     @InjectMocks
     private FlightService flightService;
 
@@ -39,30 +71,189 @@ class FlightServiceTest {
     }
 
     @Test
-    void searchFlights_ValidInput_ReturnsFlights() {
-        when(flightRepository.searchFlights(anyString(), anyString(), any(LocalDateTime.class)))
-            .thenReturn(Arrays.asList(flight1, flight2));
+    void searchFlights_StaleSnapshot_ReadsSelectedPropertiesByDepartureTime() {
+        when(flightRepository.findViews(any(), any(), any(), anyInt()))
+            .thenReturn(List.of(FlightView.of(flight1), FlightView.of(flight2)));
 
-        List<Flight> results = flightService.searchFlights("SFO", "JFK", "2026-02-15");
+        List<FlightView> results = flightService.searchFlights("SFO", "JFK", futureDate().toString(), 1, PROPERTIES);
 
         assertThat(results).hasSize(2);
-        verify(flightRepository).searchFlights(eq("SFO"), eq("JFK"), any(LocalDateTime.class));
+        verify(flightRepository).findViews(any(), eq(PROPERTIES), eq(Sort.by("departureTime", "id")), eq(0));
+    }
+
+    @Test
+    void searchFlights_FreshSnapshot_ServedWithoutRepository() {
+        LocalDate date = futureDate();
+        FlightView view = FlightView.of(flight1);
+        when(flightSnapshot.isFresh()).thenReturn(true);
+        when(flightSnapshot.search("SFO", "JFK", date, 2)).thenReturn(List.of(view));
+
+        assertThat(flightService.searchFlights("sfo", "jfk", date.toString(), 2, PROPERTIES)).containsExactly(view);
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void findViewById_NotInSnapshot_ReadsSelectedPropertiesFromRepository() {
+        when(flightSnapshot.isFresh()).thenReturn(true);
+        when(flightSnapshot.findById(1L)).thenReturn(Optional.empty());
+        when(flightRepository.findViews(any(), any(), any(), anyInt())).thenReturn(List.of(FlightView.of(flight1)));
+
+        assertThat(flightService.findViewById(1L, PROPERTIES)).map(FlightView::flightNumber).hasValue("UA1234");
+        verify(flightRepository).findViews(any(), eq(PROPERTIES), eq(Sort.unsorted()), eq(1));
+    }
+
+    @Test
+    void searchFlights_RepeatedSearch_ServedFromCache() {
+        String date = futureDate().toString();
+        when(flightRepository.findViews(any(), any(), any(), anyInt()))
+            .thenReturn(List.of(FlightView.of(flight1), FlightView.of(flight2)));
+
+        flightService.searchFlights("SFO", "JFK", date, 1, PROPERTIES);
+        List<FlightView> results = flightService.searchFlights("sfo", "jfk", date, 1, PROPERTIES);
+
+        assertThat(results).extracting(FlightView::flightNumber).containsExactly("UA1234", "DL5678");
+        verify(flightRepository, times(1)).findViews(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchFlights_ConcurrentIdenticalSearches_ShareOneQuery() throws Exception {
+        String date = futureDate().toString();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightRepository.findViews(any(), any(), any(), anyInt()))
+            .thenAnswer(invocation -> {
+                started.countDown();
+                release.await();
+                return List.of(FlightView.of(flight1), FlightView.of(flight2));
+            });
+
+        CompletableFuture<List<FlightView>> first = CompletableFuture.supplyAsync(
+            () -> flightService.searchFlights("SFO", "JFK", date, 1, PROPERTIES));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<FlightView>> identical = CompletableFuture.supplyAsync(
+            () -> flightService.searchFlights("sfo", "jfk", date, 1, PROPERTIES));
+        Thread.sleep(100);
+        assertThat(identical).isNotDone();
+        release.countDown();
+
+        assertThat(identical.get(5, TimeUnit.SECONDS)).isSameAs(first.get(5, TimeUnit.SECONDS));
+        verify(flightRepository, times(1)).findViews(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchFlights_AfterRouteDayEvicted_QueriesRepositoryAgain() {
+        LocalDate date = futureDate();
+        when(flightRepository.findViews(any(), any(), any(), anyInt()))
+            .thenReturn(List.of(FlightView.of(flight1), FlightView.of(flight2)));
+
+        flightService.searchFlights("SFO", "JFK", date.toString(), 1, PROPERTIES);
+        flightService.searchFlights("SFO", "JFK", date.toString(), 2, PROPERTIES);
+        searchCache.onSeatsChanged(new FlightSeatsChangedEvent(1L, "SFO", "JFK", date));
+        flightService.searchFlights("SFO", "JFK", date.toString(), 1, PROPERTIES);
+        flightService.searchFlights("SFO", "JFK", date.toString(), 2, PROPERTIES);
+
+        verify(flightRepository, times(4)).findViews(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void searchFlights_InvalidPassengers_ThrowsException() {
+        assertThatThrownBy(() -> flightService.searchFlights("SFO", "JFK", futureDate().toString(), 0, PROPERTIES))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Passengers must be between 1 and 9");
     }
 
     @Test
     void searchFlights_InvalidAirportCode_ThrowsException() {
-        assertThatThrownBy(() -> flightService.searchFlights("SFOX", "JFK", "2026-02-15"))
+        assertThatThrownBy(() -> flightService.searchFlights("SFOX", "JFK", "2026-02-15", 1, PROPERTIES))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Airport code must be exactly 3 letters");
     }
 
     @Test
     void searchFlights_PastDate_ThrowsException() {
-        assertThatThrownBy(() -> flightService.searchFlights("SFO", "JFK", "2020-01-01"))
+        assertThatThrownBy(() -> flightService.searchFlights("SFO", "JFK", "2020-01-01", 1, PROPERTIES))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Departure date must be today or in the future");
     }
 
+    @Test
+    void fareCalendar_StaleSnapshot_QueriesWholeRangeOnce() {
+        LocalDate from = futureDate();
+        DailyFare fare = new DailyFare(from, Money.of(new BigDecimal("325.00"), Flight.CURRENCY), 2);
+        when(flightRepository.findDailyFares("SFO", "JFK", from.atStartOfDay(), from.plusDays(60).atStartOfDay(), 1))
+            .thenReturn(List.of(fare));
+
+        assertThat(flightService.fareCalendar("sfo", "jfk", from.toString(), from.plusDays(59).toString(), 1))
+            .containsExactly(fare);
+        verify(flightSnapshot, never()).fareCalendar(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void fareCalendar_RangeTooLongOrReversed_ThrowsException() {
+        LocalDate from = futureDate();
+
+        assertThatThrownBy(() -> flightService.fareCalendar("SFO", "JFK", from.toString(),
+                                                            from.plusDays(FlightService.MAX_CALENDAR_DAYS).toString(), 1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Date range must be at most 90 days");
+        assertThatThrownBy(() -> flightService.fareCalendar("SFO", "JFK", from.toString(),
+                                                            from.minusDays(1).toString(), 1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("End date must not be before start date");
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void searchFlightPage_PageSizeTooLarge_ThrowsException() {
+        assertThatThrownBy(() -> flightService.searchFlightPage("SFO", "JFK", futureDate().toString(), 1,
+                                                                null, FlightSort.PRICE, 101, null, Set.of()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Page size must be between 1 and 100");
+    }
+
+    @Test
+    void searchFlightPage_TamperedCursor_ThrowsException() {
+        assertThatThrownBy(() -> flightService.searchFlightPage("SFO", "JFK", futureDate().toString(), 1,
+                                                                null, FlightSort.PRICE, 20, "not-a-cursor",
+                                                                Set.of()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchFlightPage_SelectedProperties_ReadsThemAndSortKeyOnly() {
+        FlightView flight = new FlightView(1L, "UA1234", null, null, null, null, null, 0,
+            Money.of(new BigDecimal("299.99"), Flight.CURRENCY), 0, 0, null, null);
+        when(flightRepository.findViews(any(), any(), any(), anyInt())).thenReturn(List.of(flight));
+
+        FlightPage page = flightService.searchFlightPage("SFO", "JFK", futureDate().toString(), 1,
+                                                         null, FlightSort.PRICE, 20, null, Set.of("flightNumber"));
+
+        assertThat(page.flights()).containsExactly(flight);
+        assertThat(page.hasNextPage()).isFalse();
+        verify(flightRepository).findViews(any(), eq(Set.of("flightNumber", "price")),
+                                           eq(Sort.by("price", "id")), eq(21));
+    }
+
+    @Test
+    void searchItineraries_ValidInput_SearchesRouteGraph() {
+        LocalDate date = futureDate();
+
+        flightService.searchItineraries("sea", "dfw", date.toString(), 2, 1, 5);
+
+        verify(routeGraphService).search("SEA", "DFW", date, 2, 1, 5);
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void searchItineraries_TooManyConnections_ThrowsException() {
+        assertThatThrownBy(() -> flightService.searchItineraries("SEA", "DFW", futureDate().toString(), 1, 3, 5))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Connections must be between 0 and 2");
+        verifyNoInteractions(routeGraphService);
+    }
+
     @Test
     void sortFlightsByPrice_ReturnsCorrectOrder() {
         List<Flight> flights = Arrays.asList(flight1, flight2);
@@ -72,6 +263,16 @@ class FlightServiceTest {
         assertThat(sorted.get(0).getPrice()).isLessThan(sorted.get(1).getPrice());
     }
 
+    @Test
+    void sortFlightsByPrice_EqualPrices_KeepsGivenOrder() {
+        Flight sameAsFirst = createFlight(3L, "AA9012", new BigDecimal("350.00"), 330,
+                                          futureDate().atTime(9, 0));
+
+        List<Flight> sorted = flightService.sortFlightsByPrice(List.of(flight1, flight2, sameAsFirst));
+
+        assertThat(sorted).containsExactly(flight2, flight1, sameAsFirst);
+    }
+
     @Test
     void sortFlightsByDuration_ReturnsCorrectOrder() {
         flight2.setDurationMinutes(300);
@@ -82,6 +283,10 @@ class FlightServiceTest {
         assertThat(sorted.get(0).getDurationMinutes()).isLessThan(sorted.get(1).getDurationMinutes());
     }
 
+    private LocalDate futureDate() {
+        return LocalDate.now().plusDays(30);
+    }
+
     private Flight createFlight(Long id, String flightNumber, BigDecimal price,
                                Integer duration, LocalDateTime departureTime) {
         Flight flight = new Flight();
@@ -93,7 +298,7 @@ class FlightServiceTest {
         flight.setDepartureTime(departureTime);
         flight.setArrivalTime(departureTime.plusMinutes(duration));
         flight.setDurationMinutes(duration);
-        flight.setPrice(price);
+        flight.setPrice(Money.of(price, Flight.CURRENCY));
         flight.setStops(0);
         flight.setAircraftType("Boeing 737");
         flight.setAvailableSeats(150);
@@ -0,0 +1,123 @@
+package com.travelapp.service;
+
+import com.travelapp.model.DailyFare;
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+import com.travelapp.repository.FlightRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightSnapshotServiceTest {
+
+    private static final Instant LOADED_AT = Instant.parse("2026-10-01T12:00:00Z");
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private final LocalDate date = LocalDate.now().plusDays(30);
+
+    @Test
+    void refresh_FirstTime_LoadsUpcomingFlightsByRouteDay() {
+        FlightSnapshotService snapshot = snapshot(Duration.ofMinutes(1));
+        when(flightRepository.findViewsDepartingFrom(any(LocalDateTime.class))).thenReturn(List.of(
+            view(1, "UA1234", "SFO", "JFK", 14, 150),
+            view(2, "DL5678", "SFO", "JFK", 8, 1),
+            view(3, "AA9012", "LAX", "ORD", 9, 150)
+        ));
+
+        assertThat(snapshot.isFresh()).isFalse();
+        snapshot.refresh();
+
+        assertThat(snapshot.isFresh()).isTrue();
+        assertThat(snapshot.search("SFO", "JFK", date, 1)).extracting(FlightView::flightNumber)
+            .containsExactly("DL5678", "UA1234");
+        assertThat(snapshot.search("SFO", "JFK", date, 2)).extracting(FlightView::flightNumber)
+            .containsExactly("UA1234");
+        assertThat(snapshot.search("SFO", "JFK", date.plusDays(1), 1)).isEmpty();
+        assertThat(snapshot.findById(3)).map(FlightView::origin).hasValue("LAX");
+    }
+
+    @Test
+    void refresh_AfterLoad_AppliesChangesSinceNewestUpdate() {
+        FlightSnapshotService snapshot = snapshot(Duration.ofMinutes(1));
+        when(flightRepository.findViewsDepartingFrom(any(LocalDateTime.class))).thenReturn(List.of(
+            view(1, "UA1234", "SFO", "JFK", 14, 150),
+            view(2, "DL5678", "SFO", "JFK", 8, 150)
+        ));
+        snapshot.refresh();
+
+        FlightView rescheduled = new FlightView(2, "DL5678", "Test Airlines", "SFO", "JFK",
+            date.plusDays(1).atTime(8, 0), date.plusDays(1).atTime(16, 30), 330, Money.of(new BigDecimal("325.00"), Flight.CURRENCY),
+            140, 0, "Boeing 737", LOADED_AT.plusSeconds(5));
+        when(flightRepository.findViewsUpdatedAfter(LOADED_AT.minus(FlightSnapshotService.COMMIT_LAG)))
+            .thenReturn(List.of(rescheduled, view(4, "SW1111", "SFO", "JFK", 6, 175)));
+        snapshot.refresh();
+
+        assertThat(snapshot.search("SFO", "JFK", date, 1)).extracting(FlightView::flightNumber)
+            .containsExactly("SW1111", "UA1234");
+        assertThat(snapshot.search("SFO", "JFK", date.plusDays(1), 1)).containsExactly(rescheduled);
+        verify(flightRepository, times(1)).findViewsDepartingFrom(any(LocalDateTime.class));
+
+        snapshot.refresh();
+        verify(flightRepository).findViewsUpdatedAfter(LOADED_AT.plusSeconds(5).minus(FlightSnapshotService.COMMIT_LAG));
+    }
+
+    @Test
+    void fareCalendar_ReturnsCheapestSeatedFlightPerDay() {
+        FlightSnapshotService snapshot = snapshot(Duration.ofMinutes(1));
+        FlightView nextDay = new FlightView(3, "AA9012", "Test Airlines", "SFO", "JFK",
+            date.plusDays(2).atTime(9, 0), date.plusDays(2).atTime(14, 30), 330,
+            Money.of(new BigDecimal("410.00"), Flight.CURRENCY), 150, 0, "Boeing 737", LOADED_AT);
+        FlightView soldOut = new FlightView(4, "DL6789", "Test Airlines", "SFO", "JFK",
+            date.atTime(6, 0), date.atTime(11, 30), 330,
+            Money.of(new BigDecimal("99.00"), Flight.CURRENCY), 1, 0, "Boeing 737", LOADED_AT);
+        when(flightRepository.findViewsDepartingFrom(any(LocalDateTime.class))).thenReturn(List.of(
+            view(1, "UA1234", "SFO", "JFK", 14, 150), view(2, "DL5678", "SFO", "JFK", 8, 150), nextDay, soldOut
+        ));
+        snapshot.refresh();
+
+        assertThat(snapshot.fareCalendar("SFO", "JFK", date, date.plusDays(2), 2)).containsExactly(
+            new DailyFare(date, Money.of(new BigDecimal("325.00"), Flight.CURRENCY), 2),
+            new DailyFare(date.plusDays(2), Money.of(new BigDecimal("410.00"), Flight.CURRENCY), 1));
+    }
+
+    @Test
+    void isFresh_RefreshFailing_ExpiresAfterMaxStaleness() throws InterruptedException {
+        FlightSnapshotService snapshot = snapshot(Duration.ofMillis(50));
+        when(flightRepository.findViewsDepartingFrom(any(LocalDateTime.class)))
+            .thenReturn(List.of(view(1, "UA1234", "SFO", "JFK", 14, 150)));
+        snapshot.refresh();
+        when(flightRepository.findViewsUpdatedAfter(any(Instant.class)))
+            .thenThrow(new IllegalStateException("Database unavailable"));
+
+        assertThatThrownBy(snapshot::refresh).isInstanceOf(IllegalStateException.class);
+        Thread.sleep(100);
+
+        assertThat(snapshot.isFresh()).isFalse();
+    }
+
+    private FlightSnapshotService snapshot(Duration maxStaleness) {
+        return new FlightSnapshotService(flightRepository, maxStaleness, Duration.ofHours(1));
+    }
+
+    private FlightView view(long id, String flightNumber, String origin, String destination, int hour, int seats) {
+        return new FlightView(id, flightNumber, "Test Airlines", origin, destination,
+            date.atTime(hour, 0), date.atTime(hour, 0).plusMinutes(330), 330, Money.of(new BigDecimal("325.00"), Flight.CURRENCY),
+            seats, 0, "Boeing 737", LOADED_AT);
+    }
+}
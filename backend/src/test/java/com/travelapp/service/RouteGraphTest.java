@@ -0,0 +1,138 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.FlightView;
+import com.travelapp.model.Money;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RouteGraphTest {
+
+    private static final long MIN_CONNECTION = Duration.ofMinutes(45).toSeconds();
+    private static final long MAX_CONNECTION = Duration.ofHours(6).toSeconds();
+
+    private final LocalDate date = LocalDate.now().plusDays(30);
+    private final AirportTimeZones timeZones = new AirportTimeZones();
+    private final List<Flight> flights = new ArrayList<>();
+    private long nextId = 1;
+
+    @Test
+    void search_NoDirectFlight_FindsOneConnection() {
+        flight("UA100", "SEA", "DEN", 7, 0, 10, 30, 150);    // arrives 10:30 MT
+        flight("UA200", "DEN", "DFW", 11, 0, 14, 0, 150);    // 30 min connection: too short
+        flight("UA300", "DEN", "DFW", 11, 30, 14, 30, 150);  // 60 min connection
+        flight("UA400", "DEN", "DFW", 17, 30, 20, 30, 150);  // 7 hour connection: too long
+
+        List<Itinerary> itineraries = search("SEA", "DFW", 2);
+
+        assertThat(itineraries).singleElement().satisfies(itinerary -> {
+            assertThat(itinerary.legs()).extracting(FlightView::flightNumber).containsExactly("UA100", "UA300");
+            assertThat(itinerary.getConnections()).isEqualTo(1);
+            assertThat(itinerary.departureTime()).isEqualTo(date.atTime(7, 0));
+            assertThat(itinerary.arrivalTime()).isEqualTo(date.atTime(14, 30));
+            // 07:00 PT to 14:30 CT is 5.5 hours of elapsed time
+            assertThat(itinerary.durationMinutes()).isEqualTo(330);
+            assertThat(itinerary.totalPrice()).isEqualTo(Money.of(new BigDecimal("300.00"), Flight.CURRENCY));
+        });
+    }
+
+    @Test
+    void search_ConnectionsAcrossTimeZones_UseElapsedTime() {
+        // UA100 lands at 16:30 New York time, so DL200 has already left
+        flight("UA100", "SFO", "JFK", 8, 0, 16, 30, 150);
+        flight("DL200", "JFK", "MIA", 15, 0, 18, 0, 150);
+        flight("DL300", "JFK", "MIA", 17, 30, 20, 30, 150);
+
+        assertThat(search("SFO", "MIA", 1))
+            .singleElement()
+            .extracting(itinerary -> itinerary.legs().get(1).flightNumber())
+            .isEqualTo("DL300");
+    }
+
+    @Test
+    void search_TwoConnections_RespectsMaxConnections() {
+        flight("AA100", "BOS", "ORD", 6, 0, 8, 0, 150);
+        flight("AA200", "ORD", "DEN", 9, 0, 10, 30, 150);
+        flight("AA300", "DEN", "PHX", 12, 0, 13, 30, 150);
+
+        assertThat(search("BOS", "PHX", 2)).singleElement()
+            .satisfies(itinerary -> assertThat(itinerary.getConnections()).isEqualTo(2));
+        assertThat(search("BOS", "PHX", 1)).isEmpty();
+    }
+
+    @Test
+    void search_OrdersByArrivalAndIncludesDirectFlights() {
+        flight("UA100", "LAX", "ORD", 7, 0, 13, 0, 150);
+        flight("UA200", "LAX", "DEN", 6, 0, 9, 0, 150);
+        flight("UA300", "DEN", "ORD", 10, 0, 12, 30, 150);
+
+        assertThat(search("LAX", "ORD", 2))
+            .extracting(itinerary -> itinerary.legs().stream().map(FlightView::flightNumber).toList())
+            .containsExactly(List.of("UA200", "UA300"), List.of("UA100"));
+    }
+
+    @Test
+    void search_LegWithoutEnoughSeats_IsSkipped() {
+        flight("UA100", "SEA", "DEN", 7, 0, 10, 30, 150);
+        flight("UA300", "DEN", "DFW", 11, 30, 14, 30, 1);
+
+        assertThat(graph().search("SEA", "DFW", date, 2, 2, 10, MIN_CONNECTION, MAX_CONNECTION)).isEmpty();
+        assertThat(graph().search("SEA", "DFW", date, 1, 2, 10, MIN_CONNECTION, MAX_CONNECTION)).hasSize(1);
+    }
+
+    @Test
+    void search_NeverRevisitsAnAirport() {
+        flight("UA100", "SEA", "DEN", 6, 0, 9, 30, 150);
+        flight("UA200", "DEN", "SEA", 10, 30, 12, 0, 150);
+        flight("UA300", "SEA", "DFW", 13, 0, 18, 0, 150);
+
+        assertThat(search("SEA", "DFW", 2))
+            .extracting(itinerary -> itinerary.legs().stream().map(FlightView::flightNumber).toList())
+            .containsExactly(List.of("UA300"));
+    }
+
+    @Test
+    void search_OnlyStartsFromDepartureDate() {
+        flight("UA100", "SEA", "DEN", 7, 0, 10, 30, 150);
+        Flight nextDay = flight("UA101", "SEA", "DEN", 7, 0, 10, 30, 150);
+        nextDay.setDepartureTime(nextDay.getDepartureTime().plusDays(1));
+        nextDay.setArrivalTime(nextDay.getArrivalTime().plusDays(1));
+
+        assertThat(search("SEA", "DEN", 0)).extracting(itinerary -> itinerary.legs().get(0).flightNumber())
+            .containsExactly("UA100");
+    }
+
+    private List<Itinerary> search(String origin, String destination, int maxConnections) {
+        return graph().search(origin, destination, date, 1, maxConnections, 10, MIN_CONNECTION, MAX_CONNECTION);
+    }
+
+    private RouteGraph graph() {
+        return RouteGraph.build(flights.stream().map(FlightView::of).toList(), timeZones);
+    }
+
+    private Flight flight(String flightNumber, String origin, String destination,
+                          int departureHour, int departureMinute, int arrivalHour, int arrivalMinute, int seats) {
+        Flight flight = new Flight();
+        flight.setId(nextId++);
+        flight.setFlightNumber(flightNumber);
+        flight.setAirline("United Airlines");
+        flight.setOrigin(origin);
+        flight.setDestination(destination);
+        flight.setDepartureTime(date.atTime(departureHour, departureMinute));
+        flight.setArrivalTime(date.atTime(arrivalHour, arrivalMinute));
+        flight.setDurationMinutes(0);
+        flight.setPrice(Money.of(new BigDecimal("150.00"), Flight.CURRENCY));
+        flight.setStops(0);
+        flight.setAircraftType("Boeing 737");
+        flight.setAvailableSeats(seats);
+        flights.add(flight);
+        return flight;
+    }
+}
@@ -0,0 +1,54 @@
+package com.travelapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ScheduleCsvReaderTest {
+
+    @Test
+    void next_ColumnsInAnyOrder_ReturnsFieldsInColumnOrder() throws Exception {
+        String csv = """
+            notes,available_seats,aircraft_type,stops,price,duration_minutes,arrival_time,departure_time,destination,origin,airline,flight_number
+            "red-eye, new",150,"Airbus \"\"A320\"\"",0,199.00,330,2026-06-01T16:30,2026-06-01T08:00,JFK,SFO,United Airlines,UA1234
+
+            x,150,Boeing 737,0,199.00,330,2026-06-02T16:30,2026-06-02T08:00,JFK,SFO,United Airlines,UA1234
+            """;
+
+        try (ScheduleCsvReader reader = new ScheduleCsvReader(new StringReader(csv))) {
+            assertThat(reader.next()).containsExactly("UA1234", "United Airlines", "SFO", "JFK", "2026-06-01T08:00",
+                "2026-06-01T16:30", "330", "199.00", "0", "Airbus \"A320\"", "150");
+            assertThat(reader.lineNumber()).isEqualTo(2);
+            assertThat(reader.next()).startsWith("UA1234");
+            assertThat(reader.lineNumber()).isEqualTo(4);
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void next_MalformedRow_ThrowsAndContinues() throws Exception {
+        String header = String.join(",", ScheduleCsvReader.COLUMNS);
+        String csv = header + "\nUA1234,\"United Airlines\n"
+                     + "UA1234,United Airlines,SFO\n"
+                     + "UA1234,United Airlines,SFO,JFK,2026-06-01T08:00,2026-06-01T16:30,330,199.00,0,Boeing 737,150\n";
+
+        try (ScheduleCsvReader reader = new ScheduleCsvReader(new StringReader(csv))) {
+            assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("quoted");
+            assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("fields");
+            assertThat(reader.next()).hasSize(ScheduleCsvReader.COLUMNS.size());
+            assertThat(reader.lineNumber()).isEqualTo(4);
+        }
+    }
+
+    @Test
+    void constructor_MissingColumns_ThrowsException() {
+        assertThatThrownBy(() -> new ScheduleCsvReader(new StringReader("flight_number,airline,origin\n")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("destination");
+        assertThatThrownBy(() -> new ScheduleCsvReader(new StringReader("")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("empty");
+    }
+}
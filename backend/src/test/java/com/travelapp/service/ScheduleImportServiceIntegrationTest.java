@@ -0,0 +1,175 @@
+package com.travelapp.service;
+
+import com.travelapp.model.Flight;
+import com.travelapp.model.Money;
+import com.travelapp.repository.FlightRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the schedule import against PostgreSQL, which it needs for COPY and ON CONFLICT. The
+ * batch size is small so that one file takes several COPY and merge rounds.
+ */
+@SpringBootTest(properties = {
+    "travelapp.schedule-import.batch-size=3",
+    "travelapp.booking.reference-key=7243029185364871"
+})
+@Testcontainers
+class ScheduleImportServiceIntegrationTest {
+
+    private static final String HEADER = String.join(",", ScheduleCsvReader.COLUMNS);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+        .withDatabaseName("testdb")
+        .withUsername("test")
+        .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ScheduleImportService importService;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        date = LocalDate.now().plusDays(30);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightRepository.deleteAll(flightRepository.findAll().stream()
+            .filter(flight -> !flight.getDepartureTime().toLocalDate().isBefore(date))
+            .toList());
+    }
+
+    @Test
+    void importSchedule_MixedRows_InsertsUpdatesAndReportsRejectedLines() {
+        Flight existing = flightRepository.save(flight("UA1234", date.atTime(8, 0), "350.00", 12));
+        String csv = String.join("\n", HEADER,
+            row("UA1234", date.atTime(8, 0), "299.00", 150),
+            row("AA100", date.atTime(12, 0), "410.50", 160),
+            row("AA100", date.atTime(12, 0), "389.00", 160),
+            row("NK200", date.atTime(14, 0), "199.99", 150).replace("JFK", "jfk"),
+            row("NK300", date.atTime(16, 0), "12.345", 150),
+            row("WN400", date.minusDays(60).atTime(9, 0), "150.00", 150),
+            "UA9999,\"United Airlines",
+            row("DL5678", date.atTime(10, 30), "325.00", 180),
+            row("AS500", date.atTime(18, 0), "275.00", 140).replace(date + "T23:30", date + "T17:00"));
+
+        ScheduleImportReport report = importService.importSchedule(new StringReader(csv));
+
+        assertThat(report.rowsRead()).isEqualTo(9);
+        assertThat(report.inserted()).isEqualTo(2);
+        assertThat(report.updated()).isEqualTo(1);
+        assertThat(report.unchanged()).isZero();
+        assertThat(report.superseded()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(5);
+        assertThat(report.errors()).containsExactly(
+            "line 5: Destination must be a valid 3-letter airport code",
+            "line 6: Invalid price: '12.345'",
+            "line 7: Departure time must be in the future",
+            "line 8: Unterminated quoted field",
+            "line 10: Arrival time must be after departure time");
+        assertThat(report.rowsPerSecond()).isPositive();
+
+        Flight updated = flightRepository.findById(existing.getId()).orElseThrow();
+        assertThat(updated.getPrice()).isEqualTo(Money.of(new BigDecimal("299.00"), Flight.CURRENCY));
+        assertThat(updated.getAvailableSeats()).isEqualTo(12);
+        List<Flight> imported = flightRepository.searchFlights(
+            "SFO", "JFK", date.atStartOfDay(), date.plusDays(1).atStartOfDay(), 1);
+        assertThat(imported).extracting(Flight::getFlightNumber).containsExactly("UA1234", "DL5678", "AA100");
+        assertThat(imported.get(2).getPrice()).isEqualTo(Money.of(new BigDecimal("389.00"), Flight.CURRENCY));
+    }
+
+    @Test
+    void importSchedule_SameFileTwice_ChangesNothing() {
+        String csv = String.join("\n", HEADER,
+            row("DL5678", date.atTime(10, 30), "325.00", 180),
+            row("AA100", date.atTime(12, 0), "410.50", 160));
+        importService.importSchedule(new StringReader(csv));
+
+        ScheduleImportReport report = importService.importSchedule(new StringReader(csv));
+
+        assertThat(report.inserted()).isZero();
+        assertThat(report.updated()).isZero();
+        assertThat(report.unchanged()).isEqualTo(2);
+    }
+
+    @Test
+    void importSchedule_FlightRepeatedInOneBatch_CountsEarlierRowsAsSuperseded() {
+        double supersededBefore = importedRows("superseded");
+        double unchangedBefore = importedRows("unchanged");
+        String csv = String.join("\n", HEADER,
+            row("AA100", date.atTime(12, 0), "410.50", 160),
+            row("AA100", date.atTime(12, 0), "389.00", 160),
+            row("AA100", date.atTime(12, 0), "375.00", 160));
+
+        ScheduleImportReport report = importService.importSchedule(new StringReader(csv));
+
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.unchanged()).isZero();
+        assertThat(report.superseded()).isEqualTo(2);
+        assertThat(importedRows("superseded") - supersededBefore).isEqualTo(2);
+        assertThat(importedRows("unchanged") - unchangedBefore).isZero();
+        List<Flight> imported = flightRepository.searchFlights(
+            "SFO", "JFK", date.atStartOfDay(), date.plusDays(1).atStartOfDay(), 1);
+        assertThat(imported).singleElement()
+            .satisfies(flight -> assertThat(flight.getPrice())
+                .isEqualTo(Money.of(new BigDecimal("375.00"), Flight.CURRENCY)));
+    }
+
+    private double importedRows(String result) {
+        return meterRegistry.get("travelapp.schedule.import.rows").tag("result", result).counter().count();
+    }
+
+    private static String row(String flightNumber, LocalDateTime departure, String price, int seats) {
+        return String.join(",", flightNumber, "\"Test Airways, Inc.\"", "SFO", "JFK", departure.toString(),
+            departure.plusMinutes(330).toString(), "330", price, "0", "Boeing 737", Integer.toString(seats));
+    }
+
+    private static Flight flight(String flightNumber, LocalDateTime departure, String price, int seats) {
+        Flight flight = new Flight();
+        flight.setFlightNumber(flightNumber);
+        flight.setAirline("Test Airways, Inc.");
+        flight.setOrigin("SFO");
+        flight.setDestination("JFK");
+        flight.setDepartureTime(departure);
+        flight.setArrivalTime(departure.plusMinutes(330));
+        flight.setDurationMinutes(330);
+        flight.setPrice(Money.of(new BigDecimal(price), Flight.CURRENCY));
+        flight.setStops(0);
+        flight.setAircraftType("Boeing 737");
+        flight.setAvailableSeats(seats);
+        return flight;
+    }
+}
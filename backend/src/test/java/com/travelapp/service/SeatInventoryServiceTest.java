@@ -0,0 +1,74 @@
+package com.travelapp.service;
+
+import com.travelapp.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryServiceTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2026, 2, 10, 8, 0);
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private SeatInventoryService seatInventoryService;
+
+    @BeforeEach
+    void setUp() {
+        seatInventoryService = new SeatInventoryService(flightRepository, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void reserveSeats_DecrementSucceeds_ReturnsTrue() {
+        when(flightRepository.decrementAvailableSeats(1L, DEPARTURE, 2)).thenReturn(1);
+
+        assertThat(seatInventoryService.reserveSeats(1L, DEPARTURE, 2)).isTrue();
+    }
+
+    @Test
+    void reserveSeats_AfterFailedDecrement_RejectsLargerRequestsWithoutDatabase() {
+        when(flightRepository.decrementAvailableSeats(1L, DEPARTURE, 3)).thenReturn(0);
+
+        assertThat(seatInventoryService.reserveSeats(1L, DEPARTURE, 3)).isFalse();
+        assertThat(seatInventoryService.reserveSeats(1L, DEPARTURE, 3)).isFalse();
+        assertThat(seatInventoryService.reserveSeats(1L, DEPARTURE, 4)).isFalse();
+
+        verify(flightRepository, times(1)).decrementAvailableSeats(eq(1L), eq(DEPARTURE), anyInt());
+    }
+
+    @Test
+    void reserveSeats_AfterFailedDecrement_StillTriesSmallerRequests() {
+        when(flightRepository.decrementAvailableSeats(1L, DEPARTURE, 3)).thenReturn(0);
+        when(flightRepository.decrementAvailableSeats(1L, DEPARTURE, 2)).thenReturn(1);
+
+        assertThat(seatInventoryService.reserveSeats(1L, DEPARTURE, 3)).isFalse();
+        assertThat(seatInventoryService.reserveSeats(1L, DEPARTURE, 2)).isTrue();
+    }
+
+    @Test
+    void reserveSeats_SoldOutCacheDisabled_AlwaysAsksDatabase() {
+        seatInventoryService = new SeatInventoryService(flightRepository, Duration.ZERO);
+        when(flightRepository.decrementAvailableSeats(1L, DEPARTURE, 1)).thenReturn(0);
+
+        seatInventoryService.reserveSeats(1L, DEPARTURE, 1);
+        seatInventoryService.reserveSeats(1L, DEPARTURE, 1);
+
+        verify(flightRepository, times(2)).decrementAvailableSeats(1L, DEPARTURE, 1);
+    }
+
+    @Test
+    void reserveSeats_NonPositiveSeats_ThrowsException() {
+        assertThatThrownBy(() -> seatInventoryService.reserveSeats(1L, DEPARTURE, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.travelapp.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SingleFlight<String, String> singleFlight;
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        singleFlight = new SingleFlight<>(Duration.ofMillis(500),
+            meterRegistry.counter("executed"), meterRegistry.counter("coalesced"), meterRegistry.counter("timedOut"));
+    }
+
+    @Test
+    void execute_ExecutionFails_WaitersGetSameException() throws Exception {
+        IllegalStateException failure = new IllegalStateException("Database unavailable");
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("SFO-JFK", blocked(() -> {
+            throw failure;
+        })));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> singleFlight.execute("SFO-JFK", () -> "unused"));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class).cause().isSameAs(failure);
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).cause().isSameAs(failure);
+        assertThat(count("executed")).isEqualTo(1);
+        assertThat(count("coalesced")).isEqualTo(1);
+    }
+
+    @Test
+    void execute_AfterExecutionEnded_ExecutesAgain() {
+        AtomicInteger executions = new AtomicInteger();
+
+        assertThatThrownBy(() -> singleFlight.execute("SFO-JFK", () -> {
+            executions.incrementAndGet();
+            throw new IllegalStateException("Database unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute("SFO-JFK", () -> "flights-" + executions.incrementAndGet())).isEqualTo("flights-2");
+        assertThat(singleFlight.execute("SFO-JFK", () -> "flights-" + executions.incrementAndGet())).isEqualTo("flights-3");
+        assertThat(count("coalesced")).isZero();
+    }
+
+    @Test
+    void execute_ExecutionOutlastsTimeout_WaiterGivesUp() throws Exception {
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(
+            () -> singleFlight.execute("SFO-JFK", blocked(() -> "flights")));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> singleFlight.execute("SFO-JFK", () -> "unused"))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Timed out");
+        assertThat(singleFlight.execute("LAX-ORD", () -> "other route")).isEqualTo("other route");
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("flights");
+        assertThat(count("timedOut")).isEqualTo(1);
+        assertThat(count("executed")).isEqualTo(2);
+    }
+
+    private Supplier<String> blocked(Supplier<String> execution) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return execution.get();
+        };
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
@@ -0,0 +1,36 @@
+package com.travelapp.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Hibernate statement inspector that records every SQL statement Hibernate prepares.
+ * Register it with {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public static String last() {
+        if (STATEMENTS.isEmpty()) {
+            throw new IllegalStateException("No SQL statements were recorded");
+        }
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
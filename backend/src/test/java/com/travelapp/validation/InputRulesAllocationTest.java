@@ -0,0 +1,63 @@
+package com.travelapp.validation;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Microbenchmark of heap allocation per validation call: the {@code String.matches}
+ * checks the services used to run against the shared {@link InputRules} scanners.
+ */
+class InputRulesAllocationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InputRulesAllocationTest.class);
+
+    private static final int WARMUP_CALLS = 50_000;
+    private static final int MEASURED_CALLS = 200_000;
+
+    private static final String NAME = "John Doe";
+    private static final String EMAIL = "john.doe@example.com";
+    private static final String PHONE = "+14155550123";
+    private static final String AIRPORT = "sfo";
+
+    @Test
+    void scanners_AllocateNothingPerCall() {
+        double regexBytes = bytesPerCall(ignored ->
+            NAME.trim().length() >= 2 && NAME.trim().length() <= 100
+                && EMAIL.matches("^[A-Za-z0-9+_.-]+@(.+)$")
+                && PHONE.matches("^\\+?[0-9]{10,20}$")
+                && AIRPORT.matches("^[A-Za-z]{3}$"));
+        double scannerBytes = bytesPerCall(ignored ->
+            InputRules.hasTrimmedLength(NAME, 2, 100)
+                && InputRules.isEmail(EMAIL)
+                && InputRules.isPhoneNumber(PHONE)
+                && InputRules.isAirportCodeIgnoreCase(AIRPORT));
+
+        log.info("Validation allocation per request: String.matches {} bytes, InputRules {} bytes",
+                 "%.1f".formatted(regexBytes), "%.1f".formatted(scannerBytes));
+        assertThat(scannerBytes).isLessThan(1.0);
+        assertThat(regexBytes).isGreaterThan(100.0);
+    }
+
+    private static double bytesPerCall(Predicate<Object> validation) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        boolean valid = true;
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            valid &= validation.test(null);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            valid &= validation.test(null);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertThat(valid).isTrue();
+        return (double) allocated / MEASURED_CALLS;
+    }
+}
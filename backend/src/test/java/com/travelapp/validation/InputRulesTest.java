@@ -0,0 +1,76 @@
+package com.travelapp.validation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.*;
+
+class InputRulesTest {
+
+    @Test
+    void isAirportCode_RequiresThreeUppercaseLetters() {
+        assertThat(InputRules.isAirportCode("SFO")).isTrue();
+        assertThat(InputRules.isAirportCode("sfo")).isFalse();
+        assertThat(InputRules.isAirportCode("SFOX")).isFalse();
+        assertThat(InputRules.isAirportCode("SF1")).isFalse();
+        assertThat(InputRules.isAirportCode(null)).isFalse();
+    }
+
+    @Test
+    void isAirportCodeIgnoreCase_AcceptsAnyCase() {
+        assertThat(InputRules.isAirportCodeIgnoreCase("sFo")).isTrue();
+        assertThat(InputRules.isAirportCodeIgnoreCase("SÅO")).isFalse();
+        assertThat(InputRules.isAirportCodeIgnoreCase("")).isFalse();
+    }
+
+    @Test
+    void isFlightNumber_RequiresAirlineAndThreeOrFourDigits() {
+        assertThat(InputRules.isFlightNumber("UA123")).isTrue();
+        assertThat(InputRules.isFlightNumber("UA1234")).isTrue();
+        assertThat(InputRules.isFlightNumber("UA12")).isFalse();
+        assertThat(InputRules.isFlightNumber("UA12345")).isFalse();
+        assertThat(InputRules.isFlightNumber("ua1234")).isFalse();
+    }
+
+    @Test
+    void isBookingReference_RequiresSixUppercaseAlphanumerics() {
+        assertThat(InputRules.isBookingReference("K7Q2ZD")).isTrue();
+        assertThat(InputRules.isBookingReference("k7q2zd")).isFalse();
+        assertThat(InputRules.isBookingReference("K7Q2Z")).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"john@example.com", "john.doe+travel@mail.example.co.uk", "a_b-c@localhost"})
+    void isEmail_ValidAddresses_ReturnsTrue(String email) {
+        assertThat(InputRules.isEmail(email)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"invalid-email", "@example.com", "john@", "john@@example.com", ".john@example.com",
+                            "john..doe@example.com", "john@-example.com", "john@example..com", "jo hn@example.com"})
+    void isEmail_InvalidAddresses_ReturnsFalse(String email) {
+        assertThat(InputRules.isEmail(email)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1234567890", "+14155550123", "123456789012345"})
+    void isPhoneNumber_ValidNumbers_ReturnsTrue(String phone) {
+        assertThat(InputRules.isPhoneNumber(phone)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"123", "0123456789", "1234567890123456", "+", "", "12345-67890", "++1234567890"})
+    void isPhoneNumber_InvalidNumbers_ReturnsFalse(String phone) {
+        assertThat(InputRules.isPhoneNumber(phone)).isFalse();
+    }
+
+    @Test
+    void hasTrimmedLength_IgnoresSurroundingWhitespace() {
+        assertThat(InputRules.hasTrimmedLength("  Jo  ", 2, 100)).isTrue();
+        assertThat(InputRules.hasTrimmedLength("  J  ", 2, 100)).isFalse();
+        assertThat(InputRules.hasTrimmedLength("   ", 2, 100)).isFalse();
+        assertThat(InputRules.hasTrimmedLength("x".repeat(101), 2, 100)).isFalse();
+        assertThat(InputRules.hasTrimmedLength(null, 2, 100)).isFalse();
+    }
+}
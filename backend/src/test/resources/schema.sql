@@ -0,0 +1,2 @@
+-- Objects Hibernate's create-drop doesn't generate; Liquibase creates them outside tests
+CREATE SEQUENCE IF NOT EXISTS booking_reference_seq START WITH 1 INCREMENT BY 1;
@@ -37,10 +37,10 @@ function PassengerForm({ onSubmit, loading, error }) {
       errors.passengerEmail = 'Please enter a valid email address'
     }
 
-    const phoneRegex = /^[0-9]{10,20}$/
+    const phoneRegex = /^[1-9][0-9]{9,14}$/
     const cleanPhone = formData.passengerPhone.replace(/\D/g, '')
     if (!phoneRegex.test(cleanPhone)) {
-      errors.passengerPhone = 'Phone number must be 10-20 digits'
+      errors.passengerPhone = 'Phone number must be 10-15 digits and not start with 0'
     }
 
     setValidationErrors(errors)
@@ -104,7 +104,7 @@ function PassengerForm({ onSubmit, loading, error }) {
           value={formData.passengerPhone}
           onChange={handleChange}
           error={!!validationErrors.passengerPhone}
-          helperText={validationErrors.passengerPhone || 'Enter 10-20 digits'}
+          helperText={validationErrors.passengerPhone || 'Enter 10-15 digits'}
           required
           sx={{ mb: 3 }}
         />